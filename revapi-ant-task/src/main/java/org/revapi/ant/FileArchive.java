@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 
 import javax.annotation.Nonnull;
 
@@ -16,7 +17,7 @@ import org.revapi.Archive;
  * @author Lukas Krejci
  * @since 0.2
  */
-final class FileArchive implements Archive {
+final class FileArchive implements Archive.FileBacked {
 
     public static FileArchive[] from(FileSet fileSet) {
         if (fileSet == null) {
@@ -51,6 +52,12 @@ final class FileArchive implements Archive {
         return new FileInputStream(file);
     }
 
+    @Nonnull
+    @Override
+    public Path getPath() {
+        return file.toPath();
+    }
+
     private static File[] scanFileSet(FileSet fs) {
         Project prj = fs.getProject();
         DirectoryScanner scanner = fs.getDirectoryScanner(prj);
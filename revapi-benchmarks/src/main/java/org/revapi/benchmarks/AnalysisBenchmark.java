@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.benchmarks;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.revapi.AnalysisContext;
+import org.revapi.Revapi;
+import org.revapi.basic.ClassificationTransform;
+import org.revapi.basic.ConfigurableElementFilter;
+import org.revapi.basic.IgnoreDifferenceTransform;
+import org.revapi.java.JavaApiAnalyzer;
+
+/**
+ * Measures the complete analysis of the generated APIs by the java extension, including the basic filters and
+ * transforms with no configuration.
+ *
+ * @author agent
+ * @since 0.4
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalysisBenchmark {
+
+    /**
+     * Whether to analyze the old and new API concurrently.
+     */
+    @Param({"false", "true"})
+    public boolean concurrent;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void startExecutor() {
+        if (concurrent) {
+            executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopExecutor() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public int analyze(SyntheticApiState state) throws Exception {
+        CountingReporter reporter = new CountingReporter();
+
+        //the extensions are closed at the end of the analysis, so we need new ones each time
+        Revapi revapi = Revapi.builder().withAnalyzers(new JavaApiAnalyzer()).withReporters(reporter)
+            .withFilters(new ConfigurableElementFilter())
+            .withTransforms(new IgnoreDifferenceTransform(), new ClassificationTransform()).build();
+
+        revapi.analyze(AnalysisContext.builder().withOldAPI(state.getApis().getOldApi())
+            .withNewAPI(state.getApis().getNewApi()).withExecutor(executor).build());
+
+        return reporter.getDifferences();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.benchmarks;
+
+import java.io.Reader;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.revapi.AnalysisContext;
+import org.revapi.Report;
+import org.revapi.Reporter;
+
+/**
+ * Merely counts the reported differences so that the benchmarks have something to return.
+ *
+ * @author agent
+ * @since 0.4
+ */
+final class CountingReporter implements Reporter {
+    private int differences;
+
+    @Override
+    public void report(@Nonnull Report report) {
+        differences += report.getDifferences().size();
+    }
+
+    int getDifferences() {
+        return differences;
+    }
+
+    @Nullable
+    @Override
+    public String[] getConfigurationRootPaths() {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public Reader getJSONSchema(@Nonnull String configurationRootPath) {
+        return null;
+    }
+
+    @Override
+    public void initialize(@Nonnull AnalysisContext analysisContext) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
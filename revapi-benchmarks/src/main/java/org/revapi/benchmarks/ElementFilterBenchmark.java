@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.revapi.AnalysisContext;
+import org.revapi.ElementForest;
+import org.revapi.Revapi;
+import org.revapi.basic.ConfigurableElementFilter;
+
+/**
+ * Measures the element filtering during the walk of the element forests. The run with no patterns is the baseline of
+ * walking the element forests with a filter that includes everything.
+ *
+ * @author agent
+ * @since 0.4
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ElementFilterBenchmark {
+
+    @Param({"10000", "100000"})
+    public int elements;
+
+    /**
+     * The number of the configured exclusion patterns. There is always 1 inclusion pattern if there are any patterns.
+     */
+    @Param({"0", "10", "100"})
+    public int patterns;
+
+    private ElementForest oldForest;
+    private ElementForest newForest;
+    private ModelNode configuration;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        oldForest = SyntheticApiAnalyzer.createForest(SyntheticApiAnalyzer.OLD_API, elements);
+        newForest = SyntheticApiAnalyzer.createForest(SyntheticApiAnalyzer.NEW_API, elements);
+
+        configuration = new ModelNode();
+        if (patterns > 0) {
+            configuration.get("revapi", "filter", "elements", "include").add("r.*");
+            for (int i = 0; i < patterns; ++i) {
+                //each pattern only excludes a couple of children
+                configuration.get("revapi", "filter", "elements", "exclude").add("r\\d*" + i + "\\.c" + (i % 9));
+            }
+        }
+    }
+
+    @Benchmark
+    public int filter() throws Exception {
+        CountingReporter reporter = new CountingReporter();
+
+        Revapi revapi = Revapi.builder().withAnalyzers(new SyntheticApiAnalyzer(oldForest, newForest))
+            .withReporters(reporter).withFilters(new ConfigurableElementFilter()).build();
+
+        revapi.analyze(AnalysisContext.builder().withOldAPI(SyntheticApiAnalyzer.OLD_API)
+            .withNewAPI(SyntheticApiAnalyzer.NEW_API).withConfiguration(configuration).build());
+
+        return reporter.getDifferences();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.benchmarks;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.revapi.AnalysisContext;
+import org.revapi.ArchiveAnalyzer;
+import org.revapi.Element;
+import org.revapi.java.JavaApiAnalyzer;
+
+/**
+ * Measures hashing and comparing the elements of the java model as done by the hash-based collections keyed by the
+ * elements. Both forests are fully analyzed during the setup, so this only measures the {@code hashCode()} and
+ * {@code equals()} of the elements. Compare against the previous versions of the java extension to see the effect of
+ * caching the identities of the elements.
+ *
+ * @author agent
+ * @since 0.4
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ElementIdentityBenchmark {
+
+    private JavaApiAnalyzer analyzer;
+    private ArchiveAnalyzer oldArchiveAnalyzer;
+    private ArchiveAnalyzer newArchiveAnalyzer;
+    private List<Element> oldElements;
+    private List<Element> newElements;
+
+    @Setup(Level.Trial)
+    public void analyze(SyntheticApiState state) {
+        AnalysisContext ctx = AnalysisContext.builder().withOldAPI(state.getApis().getOldApi())
+            .withNewAPI(state.getApis().getNewApi()).build();
+
+        analyzer = new JavaApiAnalyzer();
+        analyzer.initialize(ctx);
+
+        oldArchiveAnalyzer = analyzer.getArchiveAnalyzer(ctx.getOldApi());
+        newArchiveAnalyzer = analyzer.getArchiveAnalyzer(ctx.getNewApi());
+
+        oldElements = oldArchiveAnalyzer.analyze().search(Element.class, true, null, null);
+        newElements = newArchiveAnalyzer.analyze().search(Element.class, true, null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        oldArchiveAnalyzer.close();
+        newArchiveAnalyzer.close();
+        analyzer.close();
+    }
+
+    @Benchmark
+    public int hash() {
+        int ret = 0;
+        for (Element e : oldElements) {
+            ret += e.hashCode();
+        }
+
+        return ret;
+    }
+
+    @Benchmark
+    public int lookup() {
+        Set<Element> set = new HashSet<>(oldElements);
+
+        int found = 0;
+        for (Element e : newElements) {
+            if (set.contains(e)) {
+                found++;
+            }
+        }
+
+        return found;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.revapi.AnalysisContext;
+import org.revapi.Revapi;
+import org.revapi.simple.SimpleElement;
+import org.revapi.simple.SimpleElementForest;
+
+/**
+ * Measures the walk of the element forests with the children of the elements not frozen at all, frozen into an
+ * array per element and frozen into a single array for the whole forest. No differences are reported, so this is just
+ * the pairing up of the elements. Run with {@code -prof gc} to see the difference in the allocation rate.
+ *
+ * @author agent
+ * @since 0.4
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ForestComparisonBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int elements;
+
+    /**
+     * One of {@code none}, {@code elements} or {@code forest}.
+     */
+    @Param({"none", "elements", "forest"})
+    public String freeze;
+
+    private SimpleElementForest oldForest;
+    private SimpleElementForest newForest;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        oldForest = SyntheticApiAnalyzer.createForest(SyntheticApiAnalyzer.OLD_API, elements);
+        newForest = SyntheticApiAnalyzer.createForest(SyntheticApiAnalyzer.NEW_API, elements);
+
+        switch (freeze) {
+        case "none":
+            break;
+        case "elements":
+            freezeElements(oldForest);
+            freezeElements(newForest);
+            break;
+        case "forest":
+            oldForest.freeze();
+            newForest.freeze();
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown freeze mode: " + freeze);
+        }
+    }
+
+    @Benchmark
+    public int compare() throws Exception {
+        CountingReporter reporter = new CountingReporter();
+
+        Revapi revapi = Revapi.builder().withAnalyzers(new SyntheticApiAnalyzer(oldForest, newForest, false))
+            .withReporters(reporter).build();
+
+        revapi.analyze(AnalysisContext.builder().withOldAPI(SyntheticApiAnalyzer.OLD_API)
+            .withNewAPI(SyntheticApiAnalyzer.NEW_API).build());
+
+        return reporter.getDifferences();
+    }
+
+    private static void freezeElements(SimpleElementForest forest) {
+        for (SimpleElement e : forest.getRoots()) {
+            e.freeze();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.annotation.Nonnull;
+
+import org.revapi.Archive;
+
+/**
+ * @author agent
+ * @since 0.4
+ */
+final class JarArchive implements Archive.FileBacked {
+    private final Path path;
+
+    JarArchive(Path path) {
+        this.path = path;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return path.getFileName().toString();
+    }
+
+    @Nonnull
+    @Override
+    public InputStream openStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Nonnull
+    @Override
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return "JarArchive[" + path + "]";
+    }
+}
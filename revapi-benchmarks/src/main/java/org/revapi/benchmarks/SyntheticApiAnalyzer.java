@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.benchmarks;
+
+import java.io.Reader;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.SortedSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.revapi.API;
+import org.revapi.AnalysisContext;
+import org.revapi.ApiAnalyzer;
+import org.revapi.Archive;
+import org.revapi.ArchiveAnalyzer;
+import org.revapi.DifferenceAnalyzer;
+import org.revapi.Element;
+import org.revapi.ElementForest;
+import org.revapi.Report;
+import org.revapi.simple.SimpleElement;
+import org.revapi.simple.SimpleElementForest;
+
+/**
+ * An API analyzer that reports one difference for every element of prebuilt forests. This is used to measure the
+ * parts of the analysis that don't depend on any particular language, like the walk of the element forests, the
+ * element filtering and the transformation of the differences.
+ *
+ * <p>The differences have the codes {@code synthetic.code0} to {@code synthetic.code19}, cycling through the
+ * elements.
+ *
+ * @author agent
+ * @since 0.4
+ */
+final class SyntheticApiAnalyzer implements ApiAnalyzer {
+    static final API OLD_API = new API(Collections.<Archive>emptyList(), null);
+    static final API NEW_API = new API(Collections.<Archive>emptyList(), null);
+    static final int CODES = 20;
+
+    private static final int CHILDREN_PER_ROOT = 9;
+
+    private final ElementForest oldForest;
+    private final ElementForest newForest;
+    private final boolean reportDifferences;
+
+    SyntheticApiAnalyzer(ElementForest oldForest, ElementForest newForest) {
+        this(oldForest, newForest, true);
+    }
+
+    /**
+     * @param reportDifferences if false, no differences are reported at all so that only the walk of the forests
+     *                          is measured
+     */
+    SyntheticApiAnalyzer(ElementForest oldForest, ElementForest newForest, boolean reportDifferences) {
+        this.oldForest = oldForest;
+        this.newForest = newForest;
+        this.reportDifferences = reportDifferences;
+    }
+
+    /**
+     * Creates a forest of roots with {@value #CHILDREN_PER_ROOT} children each.
+     *
+     * @param api      the api of the forest
+     * @param elements the total number of elements in the forest
+     */
+    static SimpleElementForest createForest(API api, int elements) {
+        Forest forest = new Forest(api);
+
+        int index = 0;
+        while (index < elements) {
+            SyntheticElement root = new SyntheticElement(api, String.format("r%07d", index), index++);
+
+            for (int i = 0; i < CHILDREN_PER_ROOT && index < elements; ++i) {
+                root.addChild(new SyntheticElement(api, root.name + ".c" + i, index++));
+            }
+
+            forest.addRoot(root);
+        }
+
+        return forest;
+    }
+
+    @Nonnull
+    @Override
+    public ArchiveAnalyzer getArchiveAnalyzer(@Nonnull API api) {
+        return () -> api == OLD_API ? oldForest : newForest;
+    }
+
+    @Nonnull
+    @Override
+    public DifferenceAnalyzer getDifferenceAnalyzer(@Nonnull ArchiveAnalyzer oldArchive,
+        @Nonnull ArchiveAnalyzer newArchive) {
+        return new DifferenceAnalyzer() {
+            @Nonnull
+            @Override
+            public Comparator<? super Element> getCorrespondenceComparator() {
+                return Comparator.naturalOrder();
+            }
+
+            @Override
+            public void open() {
+            }
+
+            @Override
+            public void beginAnalysis(@Nullable Element oldElement, @Nullable Element newElement) {
+            }
+
+            @Override
+            public Report endAnalysis(@Nullable Element oldElement, @Nullable Element newElement) {
+                if (!reportDifferences) {
+                    return null;
+                }
+
+                SyntheticElement el = (SyntheticElement) (oldElement == null ? newElement : oldElement);
+
+                return Report.builder().withOld(oldElement).withNew(newElement).addProblem()
+                    .withCode("synthetic.code" + (el.index % CODES)).withName(el.name).done().build();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Nullable
+    @Override
+    public String[] getConfigurationRootPaths() {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public Reader getJSONSchema(@Nonnull String configurationRootPath) {
+        return null;
+    }
+
+    @Override
+    public void initialize(@Nonnull AnalysisContext analysisContext) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static final class SyntheticElement extends SimpleElement {
+        private final API api;
+        private final String name;
+        private final int index;
+
+        SyntheticElement(API api, String name, int index) {
+            this.api = api;
+            this.name = name;
+            this.index = index;
+        }
+
+        @Nonnull
+        @Override
+        public API getApi() {
+            return api;
+        }
+
+        @Nullable
+        @Override
+        public Archive getArchive() {
+            return null;
+        }
+
+        @Override
+        public int compareTo(@Nonnull Element o) {
+            return name.compareTo(((SyntheticElement) o).name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+        @SuppressWarnings("unchecked")
+        void addChild(SyntheticElement child) {
+            ((SortedSet<Element>) getChildren()).add(child);
+        }
+    }
+
+    private static final class Forest extends SimpleElementForest {
+        Forest(API api) {
+            super(api);
+        }
+
+        @SuppressWarnings("unchecked")
+        void addRoot(SyntheticElement root) {
+            ((SortedSet<SimpleElement>) getRoots()).add(root);
+        }
+    }
+}
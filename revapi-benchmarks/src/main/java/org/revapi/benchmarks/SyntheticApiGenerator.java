@@ -0,0 +1,406 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.benchmarks;
+
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ACONST_NULL;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.DCONST_0;
+import static org.objectweb.asm.Opcodes.DRETURN;
+import static org.objectweb.asm.Opcodes.FCONST_0;
+import static org.objectweb.asm.Opcodes.FRETURN;
+import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.IRETURN;
+import static org.objectweb.asm.Opcodes.LCONST_0;
+import static org.objectweb.asm.Opcodes.LRETURN;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates the old and new version of an API of configurable size as a pair of jars.
+ *
+ * <p>The classes are spread over packages of 100 classes and form inheritance chains of 10 classes. Each class has a
+ * couple of fields, the configured number of methods (using primitive, JDK and other generated types in their
+ * signatures) and a chain of nested classes of the configured depth. The generic classes pass their type parameter
+ * to the generic methods and to their superclass.
+ *
+ * <p>In the new version, the configured percentage of the classes has one change, chosen randomly from: a method
+ * removed, a method added, a return type changed, a parameter type changed, a method made final, a field removed or
+ * a new class added next to it. The generation is deterministic for the same configuration and seed.
+ *
+ * @author agent
+ * @since 0.4
+ */
+public final class SyntheticApiGenerator {
+    private static final String PACKAGE_PREFIX = "org/revapi/synthetic/p";
+    private static final int CLASSES_PER_PACKAGE = 100;
+    private static final int INHERITANCE_CHAIN_LENGTH = 10;
+
+    private enum Change {
+        METHOD_REMOVED, METHOD_ADDED, RETURN_TYPE_CHANGED, PARAMETER_TYPE_CHANGED, METHOD_FINAL, FIELD_REMOVED,
+        CLASS_ADDED
+    }
+
+    private static final Change[] CHANGES = Change.values();
+
+    public static final class Builder {
+        private int classes = 100;
+        private int methodsPerClass = 10;
+        private int nestingDepth = 1;
+        private int genericsPercentage = 20;
+        private int changedPercentage = 10;
+        private long seed = 42;
+
+        /**
+         * @param classes the number of top-level classes in the API, 100 by default
+         * @return this builder
+         */
+        @Nonnull
+        public Builder withClasses(int classes) {
+            if (classes < 1) {
+                throw new IllegalArgumentException("There must be at least 1 class.");
+            }
+            this.classes = classes;
+            return this;
+        }
+
+        /**
+         * @param methodsPerClass the number of methods in each top-level class, 10 by default
+         * @return this builder
+         */
+        @Nonnull
+        public Builder withMethodsPerClass(int methodsPerClass) {
+            if (methodsPerClass < 0) {
+                throw new IllegalArgumentException("The number of methods cannot be negative.");
+            }
+            this.methodsPerClass = methodsPerClass;
+            return this;
+        }
+
+        /**
+         * @param nestingDepth the depth of the chain of nested classes in each top-level class, 1 by default
+         * @return this builder
+         */
+        @Nonnull
+        public Builder withNestingDepth(int nestingDepth) {
+            if (nestingDepth < 0) {
+                throw new IllegalArgumentException("The nesting depth cannot be negative.");
+            }
+            this.nestingDepth = nestingDepth;
+            return this;
+        }
+
+        /**
+         * @param genericsPercentage the percentage of the top-level classes that are generic, 20 by default
+         * @return this builder
+         */
+        @Nonnull
+        public Builder withGenericsPercentage(int genericsPercentage) {
+            this.genericsPercentage = checkPercentage(genericsPercentage);
+            return this;
+        }
+
+        /**
+         * @param changedPercentage the percentage of the top-level classes that change in the new API, 10 by default
+         * @return this builder
+         */
+        @Nonnull
+        public Builder withChangedPercentage(int changedPercentage) {
+            this.changedPercentage = checkPercentage(changedPercentage);
+            return this;
+        }
+
+        /**
+         * @param seed the seed of the random choices of the generic and changed classes
+         * @return this builder
+         */
+        @Nonnull
+        public Builder withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        @Nonnull
+        public SyntheticApiGenerator build() {
+            return new SyntheticApiGenerator(classes, methodsPerClass, nestingDepth, genericsPercentage,
+                changedPercentage, seed);
+        }
+
+        private static int checkPercentage(int percentage) {
+            if (percentage < 0 || percentage > 100) {
+                throw new IllegalArgumentException("Percentage must be between 0 and 100.");
+            }
+            return percentage;
+        }
+    }
+
+    private final int classes;
+    private final int methodsPerClass;
+    private final int nestingDepth;
+    private final int genericsPercentage;
+    private final int changedPercentage;
+    private final long seed;
+
+    private SyntheticApiGenerator(int classes, int methodsPerClass, int nestingDepth, int genericsPercentage,
+        int changedPercentage, long seed) {
+        this.classes = classes;
+        this.methodsPerClass = methodsPerClass;
+        this.nestingDepth = nestingDepth;
+        this.genericsPercentage = genericsPercentage;
+        this.changedPercentage = changedPercentage;
+        this.seed = seed;
+    }
+
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Writes the old and new version of the API as {@code old.jar} and {@code new.jar} into the provided directory.
+     *
+     * @param directory the directory to generate the jars into, created if it doesn't exist
+     * @return the generated APIs
+     *
+     * @throws IOException on failure to write the jars
+     */
+    @Nonnull
+    public SyntheticApis generate(@Nonnull Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path oldJar = directory.resolve("old.jar");
+        Path newJar = directory.resolve("new.jar");
+
+        Random random = new Random(seed);
+
+        try (JarOutputStream oldOut = new JarOutputStream(Files.newOutputStream(oldJar));
+             JarOutputStream newOut = new JarOutputStream(Files.newOutputStream(newJar))) {
+
+            boolean previousGeneric = false;
+            for (int i = 0; i < classes; ++i) {
+                //always draw all the numbers so that the choices for a class don't depend on the previous ones
+                boolean generic = random.nextInt(100) < genericsPercentage;
+                boolean changed = random.nextInt(100) < changedPercentage;
+                Change change = CHANGES[random.nextInt(CHANGES.length)];
+
+                boolean genericSuperClass = previousGeneric && extendsPrevious(i);
+
+                writeClass(oldOut, i, generic, genericSuperClass, null);
+                writeClass(newOut, i, generic, genericSuperClass, changed ? change : null);
+
+                previousGeneric = generic;
+            }
+        }
+
+        return new SyntheticApis(oldJar, newJar);
+    }
+
+    private static String className(int index) {
+        return PACKAGE_PREFIX + (index / CLASSES_PER_PACKAGE) + "/C" + index;
+    }
+
+    private static boolean extendsPrevious(int index) {
+        return index % INHERITANCE_CHAIN_LENGTH != 0;
+    }
+
+    private void writeClass(JarOutputStream out, int index, boolean generic, boolean genericSuperClass,
+        @Nullable Change change) throws IOException {
+
+        String name = className(index);
+        String superName = extendsPrevious(index) ? className(index - 1) : "java/lang/Object";
+
+        String signature = null;
+        if (generic || genericSuperClass) {
+            String typeParameters = generic ? "<T:Ljava/lang/Object;>" : "";
+            String typeArguments = genericSuperClass ? "<" + (generic ? "TT;" : "Ljava/lang/String;") + ">" : "";
+            signature = typeParameters + "L" + superName + typeArguments + ";";
+        }
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name, signature, superName, null);
+
+        if (nestingDepth > 0) {
+            cw.visitInnerClass(name + "$N1", name, "N1", ACC_PUBLIC | ACC_STATIC);
+        }
+
+        if (change != Change.FIELD_REMOVED) {
+            cw.visitField(ACC_PUBLIC, "f0", "I", null, null).visitEnd();
+        }
+
+        cw.visitField(ACC_PUBLIC | ACC_STATIC | ACC_FINAL, "NAME", "Ljava/lang/String;", null, "C" + index)
+            .visitEnd();
+
+        if (generic) {
+            cw.visitField(ACC_PUBLIC, "value", "Ljava/lang/Object;", "TT;", null).visitEnd();
+        }
+
+        writeConstructor(cw, superName);
+
+        int methods = change == Change.METHOD_REMOVED ? methodsPerClass - 1 : methodsPerClass;
+        for (int j = 0; j < methods; ++j) {
+            writeMethod(cw, index, j, generic, change);
+        }
+
+        if (change == Change.METHOD_ADDED) {
+            writeMethod(cw, ACC_PUBLIC, "added", "()V", null, null);
+        }
+
+        cw.visitEnd();
+        writeEntry(out, name, cw.toByteArray());
+
+        writeNestedClasses(out, name);
+
+        if (change == Change.CLASS_ADDED) {
+            ClassWriter added = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            added.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name + "Added", null, "java/lang/Object", null);
+            writeConstructor(added, "java/lang/Object");
+            added.visitEnd();
+            writeEntry(out, name + "Added", added.toByteArray());
+        }
+    }
+
+    private void writeMethod(ClassWriter cw, int index, int methodIndex, boolean generic, @Nullable Change change) {
+        //the changes of the methods are always done on the first one
+        Change methodChange = methodIndex == 0 ? change : null;
+
+        int access = ACC_PUBLIC;
+        String descriptor;
+        String signature = null;
+        String[] exceptions = null;
+
+        switch (methodIndex % 4) {
+        case 0:
+            String parameter = methodChange == Change.PARAMETER_TYPE_CHANGED ? "J" : "I";
+            String returnType = methodChange == Change.RETURN_TYPE_CHANGED ? "J" : "I";
+            descriptor = "(" + parameter + "Ljava/lang/String;)" + returnType;
+            break;
+        case 1:
+            descriptor = "(L" + className((index + 1) % classes) + ";)Ljava/lang/String;";
+            break;
+        case 2:
+            descriptor = "(Ljava/util/Map;)Ljava/util/List;";
+            if (generic) {
+                signature = "<E::Ljava/lang/Comparable<TT;>;>(Ljava/util/Map<TE;TT;>;)Ljava/util/List<TT;>;";
+            }
+            break;
+        default:
+            access |= ACC_STATIC;
+            descriptor = "([J)V";
+            exceptions = new String[]{"java/io/IOException"};
+        }
+
+        if (methodChange == Change.METHOD_FINAL) {
+            access |= ACC_FINAL;
+        }
+
+        writeMethod(cw, access, "m" + methodIndex, descriptor, signature, exceptions);
+    }
+
+    private void writeNestedClasses(JarOutputStream out, String topLevelName) throws IOException {
+        String name = topLevelName;
+        for (int level = 1; level <= nestingDepth; ++level) {
+            name = name + "$N" + level;
+
+            ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, name, null, "java/lang/Object", null);
+
+            //the chain of the enclosing classes down to this class and its own nested class
+            String outer = topLevelName;
+            for (int l = 1; l <= Math.min(level + 1, nestingDepth); ++l) {
+                String inner = outer + "$N" + l;
+                cw.visitInnerClass(inner, outer, "N" + l, ACC_PUBLIC | ACC_STATIC);
+                outer = inner;
+            }
+
+            writeConstructor(cw, "java/lang/Object");
+            writeMethod(cw, ACC_PUBLIC, "n", "()I", null, null);
+
+            cw.visitEnd();
+            writeEntry(out, name, cw.toByteArray());
+        }
+    }
+
+    private static void writeConstructor(ClassWriter cw, String superName) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, superName, "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void writeMethod(ClassWriter cw, int access, String name, String descriptor,
+        @Nullable String signature, @Nullable String[] exceptions) {
+
+        MethodVisitor mv = cw.visitMethod(access, name, descriptor, signature, exceptions);
+        mv.visitCode();
+
+        switch (Type.getReturnType(descriptor).getSort()) {
+        case Type.VOID:
+            mv.visitInsn(RETURN);
+            break;
+        case Type.LONG:
+            mv.visitInsn(LCONST_0);
+            mv.visitInsn(LRETURN);
+            break;
+        case Type.FLOAT:
+            mv.visitInsn(FCONST_0);
+            mv.visitInsn(FRETURN);
+            break;
+        case Type.DOUBLE:
+            mv.visitInsn(DCONST_0);
+            mv.visitInsn(DRETURN);
+            break;
+        case Type.ARRAY:
+        case Type.OBJECT:
+            mv.visitInsn(ACONST_NULL);
+            mv.visitInsn(ARETURN);
+            break;
+        default:
+            mv.visitInsn(ICONST_0);
+            mv.visitInsn(IRETURN);
+        }
+
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void writeEntry(JarOutputStream out, String className, byte[] bytes) throws IOException {
+        out.putNextEntry(new JarEntry(className + ".class"));
+        out.write(bytes);
+        out.closeEntry();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The generated old and new API jars shared by the benchmarks of the java analysis. The parameters correspond to the
+ * options of the {@link SyntheticApiGenerator} and can be overridden on the JMH command line, e.g.
+ * {@code -p classes=100000}.
+ *
+ * @author agent
+ * @since 0.4
+ */
+@State(Scope.Benchmark)
+public class SyntheticApiState {
+
+    @Param({"100", "1000", "10000"})
+    public int classes;
+
+    @Param({"10"})
+    public int methodsPerClass;
+
+    @Param({"1"})
+    public int nestingDepth;
+
+    @Param({"20"})
+    public int genericsPercentage;
+
+    @Param({"10"})
+    public int changedPercentage;
+
+    private Path directory;
+    private SyntheticApis apis;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        directory = Files.createTempDirectory("revapi-benchmarks");
+        apis = SyntheticApiGenerator.builder().withClasses(classes).withMethodsPerClass(methodsPerClass)
+            .withNestingDepth(nestingDepth).withGenericsPercentage(genericsPercentage)
+            .withChangedPercentage(changedPercentage).build().generate(directory);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        apis.close();
+        Files.deleteIfExists(directory);
+    }
+
+    public SyntheticApis getApis() {
+        return apis;
+    }
+}
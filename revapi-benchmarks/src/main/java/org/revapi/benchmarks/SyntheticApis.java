@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.annotation.Nonnull;
+
+import org.revapi.API;
+
+/**
+ * The old and new version of an API produced by the {@link SyntheticApiGenerator}. Closing this instance deletes the
+ * generated jars.
+ *
+ * @author agent
+ * @since 0.4
+ */
+public final class SyntheticApis implements AutoCloseable {
+    private final Path oldJar;
+    private final Path newJar;
+
+    SyntheticApis(Path oldJar, Path newJar) {
+        this.oldJar = oldJar;
+        this.newJar = newJar;
+    }
+
+    @Nonnull
+    public Path getOldJar() {
+        return oldJar;
+    }
+
+    @Nonnull
+    public Path getNewJar() {
+        return newJar;
+    }
+
+    @Nonnull
+    public API getOldApi() {
+        return API.of(new JarArchive(oldJar)).build();
+    }
+
+    @Nonnull
+    public API getNewApi() {
+        return API.of(new JarArchive(newJar)).build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(oldJar);
+        Files.deleteIfExists(newJar);
+    }
+}
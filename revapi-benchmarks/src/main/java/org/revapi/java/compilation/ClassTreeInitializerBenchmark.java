@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.java.compilation;
+
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.revapi.benchmarks.SyntheticApiState;
+import org.revapi.java.AnalysisConfiguration;
+import org.revapi.java.model.JavaElementForest;
+
+/**
+ * Measures the scanning of the generated API archive and the construction of the element forest from it. This lives
+ * in the package of the {@link ClassTreeInitializer} because that is not public.
+ *
+ * @author agent
+ * @since 0.4
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClassTreeInitializerBenchmark {
+    private static final Set<File> BOOTSTRAP_CLASSPATH =
+        AnalysisConfiguration.fromModel(new ModelNode()).getOldApiBootstrapClasspath();
+
+    /**
+     * Whether to parse the class files concurrently.
+     */
+    @Param({"false", "true"})
+    public boolean concurrent;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void startExecutor() {
+        if (concurrent) {
+            executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopExecutor() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public JavaElementForest initTree(SyntheticApiState state) throws Exception {
+        ProbingEnvironment environment = new ProbingEnvironment(state.getApis().getOldApi());
+
+        new ClassTreeInitializer(environment, AnalysisConfiguration.MissingClassReporting.REPORT, false,
+            BOOTSTRAP_CLASSPATH, null, null, executor).initTree();
+
+        return environment.getTree();
+    }
+}
@@ -33,16 +33,25 @@ public final class AnalysisConfiguration {
     private final Set<File> oldApiBootstrapClasspath;
     private final Set<File> newApiBootstrapClasspath;
     private final boolean ignoreMissingAnnotations;
+    private final File cacheDirectory;
 
     public AnalysisConfiguration(MissingClassReporting missingClassReporting,
         Set<String> useReportingCodes, Set<File> oldApiBootstrapClasspath,
         Set<File> newApiBootstrapClasspath, boolean ignoreMissingAnnotations) {
+        this(missingClassReporting, useReportingCodes, oldApiBootstrapClasspath, newApiBootstrapClasspath,
+            ignoreMissingAnnotations, null);
+    }
+
+    public AnalysisConfiguration(MissingClassReporting missingClassReporting,
+        Set<String> useReportingCodes, Set<File> oldApiBootstrapClasspath,
+        Set<File> newApiBootstrapClasspath, boolean ignoreMissingAnnotations, File cacheDirectory) {
 
         this.missingClassReporting = missingClassReporting;
         this.useReportingCodes = useReportingCodes;
         this.oldApiBootstrapClasspath = oldApiBootstrapClasspath;
         this.newApiBootstrapClasspath = newApiBootstrapClasspath;
         this.ignoreMissingAnnotations = ignoreMissingAnnotations;
+        this.cacheDirectory = cacheDirectory;
     }
 
     public static AnalysisConfiguration fromModel(ModelNode node) {
@@ -51,9 +60,10 @@ public final class AnalysisConfiguration {
         Set<File> oldApiBootstrapClasspath = readBootstrapClasspath(node, "old");
         Set<File> newApiBootstrapClasspath = readBootstrapClasspath(node, "new");
         boolean ignoreMissingAnnotations = readIgnoreMissingAnnotations(node);
+        File cacheDirectory = readCacheDirectory(node);
 
         return new AnalysisConfiguration(reporting, useReportingCodes, oldApiBootstrapClasspath,
-            newApiBootstrapClasspath, ignoreMissingAnnotations);
+            newApiBootstrapClasspath, ignoreMissingAnnotations, cacheDirectory);
     }
 
     public MissingClassReporting getMissingClassReporting() {
@@ -76,6 +86,13 @@ public final class AnalysisConfiguration {
         return ignoreMissingAnnotations;
     }
 
+    /**
+     * @return the directory to persist the data reusable between analyses in or null if none is configured
+     */
+    public File getCacheDirectory() {
+        return cacheDirectory;
+    }
+
     private static MissingClassReporting readMissingClassReporting(ModelNode analysisConfig) {
         ModelNode config = analysisConfig.get("revapi", "java", "missing-classes", "behavior");
         if (config.isDefined()) {
@@ -99,6 +116,15 @@ public final class AnalysisConfiguration {
         return false;
     }
 
+    private static File readCacheDirectory(ModelNode analysisConfig) {
+        ModelNode config = analysisConfig.get("revapi", "java", "cache-directory");
+        if (config.isDefined()) {
+            return new File(config.asString());
+        }
+
+        return null;
+    }
+
     private static Set<String> readUseReportingCodes(ModelNode analysisConfig) {
         Set<String> ret = new HashSet<>();
         ModelNode config = analysisConfig.get("revapi", "java", "reportUsesFor");
@@ -36,15 +36,29 @@ import org.revapi.AnalysisContext;
 import org.revapi.ApiAnalyzer;
 import org.revapi.ArchiveAnalyzer;
 import org.revapi.DifferenceAnalyzer;
-import org.revapi.java.compilation.CompilationValve;
 import org.revapi.java.compilation.ProbingEnvironment;
 import org.revapi.java.spi.Check;
 
 /**
+ * If the analysis records {@link org.revapi.AnalysisMetrics metrics}, this analyzer adds the following ones:
+ * <ul>
+ *     <li>{@value #ARCHIVE_SCAN} - time to scan the classes in an archive, the subject is the archive name,</li>
+ *     <li>{@value #SUPPLEMENTARY_CLASSES} - the number of classes scanned from a supplementary archive, the subject
+ *     is the archive name,</li>
+ *     <li>{@value #TREE_CONSTRUCTION} - time to construct the element forest from the scanned classes,</li>
+ *     <li>{@value #COMPILATION} - time it takes the compiler to make the classes available for the analysis,</li>
+ *     <li>{@value #CHECK} - time spent in the individual checks, the subject is the class of the check.</li>
+ * </ul>
+ *
  * @author Lukas Krejci
  * @since 0.1
  */
 public final class JavaApiAnalyzer implements ApiAnalyzer {
+    public static final String ARCHIVE_SCAN = "java.archive-scan";
+    public static final String SUPPLEMENTARY_CLASSES = "java.supplementary-classes";
+    public static final String TREE_CONSTRUCTION = "java.tree-construction";
+    public static final String COMPILATION = "java.compilation";
+    public static final String CHECK = "java.check";
 
     private final ExecutorService compilationExecutor = Executors.newFixedThreadPool(2, new ThreadFactory() {
         private volatile int cnt;
@@ -124,8 +138,11 @@ public final class JavaApiAnalyzer implements ApiAnalyzer {
                 configuration.getNewApiBootstrapClasspath();
         boolean ignoreMissingAnnotations = configuration.isIgnoreMissingAnnotations();
 
-        return new JavaArchiveAnalyzer(api, compilationExecutor, configuration.getMissingClassReporting(),
-            ignoreMissingAnnotations, bootstrapClasspath);
+        return JavaArchiveAnalyzer.builder(api, compilationExecutor)
+            .withMissingClassReporting(configuration.getMissingClassReporting())
+            .withIgnoreMissingAnnotations(ignoreMissingAnnotations).withBootstrapClasspath(bootstrapClasspath)
+            .withMetrics(analysisContext.getMetrics()).withScanExecutor(analysisContext.getExecutor())
+            .withCacheDirectory(configuration.getCacheDirectory()).build();
     }
 
     @Nonnull
@@ -137,11 +154,9 @@ public final class JavaApiAnalyzer implements ApiAnalyzer {
 
         ProbingEnvironment oldEnvironment = oldA.getProbingEnvironment();
         ProbingEnvironment newEnvironment = newA.getProbingEnvironment();
-        CompilationValve oldValve = oldA.getCompilationValve();
-        CompilationValve newValve = newA.getCompilationValve();
 
-        return new JavaElementDifferenceAnalyzer(analysisContext, oldEnvironment, oldValve, newEnvironment, newValve,
-            checks, configuration);
+        return new JavaElementDifferenceAnalyzer(analysisContext, oldEnvironment, newEnvironment, checks,
+            configuration);
     }
 
     @Override
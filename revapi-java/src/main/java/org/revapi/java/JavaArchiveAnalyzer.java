@@ -18,12 +18,16 @@ package org.revapi.java;
 
 import java.io.File;
 import java.io.StringWriter;
+import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.revapi.API;
+import org.revapi.AnalysisMetrics;
 import org.revapi.ArchiveAnalyzer;
 import org.revapi.java.compilation.CompilationFuture;
 import org.revapi.java.compilation.CompilationValve;
@@ -42,27 +46,123 @@ public final class JavaArchiveAnalyzer implements ArchiveAnalyzer {
     private final AnalysisConfiguration.MissingClassReporting missingClassReporting;
     private final boolean ignoreMissingAnnotations;
     private final Set<File> bootstrapClasspath;
+    private final AnalysisMetrics metrics;
+    private final Executor scanExecutor;
+    private final File cacheDirectory;
     private CompilationValve compilationValve;
 
+    /**
+     * A builder of the archive analyzers that need more than the mandatory parameters of
+     * {@link #JavaArchiveAnalyzer(API, ExecutorService, AnalysisConfiguration.MissingClassReporting, boolean, Set)}.
+     *
+     * @since 0.4
+     */
+    public static final class Builder {
+        private final API api;
+        private final ExecutorService compilationExecutor;
+        private AnalysisConfiguration.MissingClassReporting missingClassReporting;
+        private boolean ignoreMissingAnnotations;
+        private Set<File> bootstrapClasspath = Collections.emptySet();
+        private AnalysisMetrics metrics;
+        private Executor scanExecutor;
+        private File cacheDirectory;
+
+        private Builder(API api, ExecutorService compilationExecutor) {
+            this.api = api;
+            this.compilationExecutor = compilationExecutor;
+        }
+
+        public Builder withMissingClassReporting(AnalysisConfiguration.MissingClassReporting missingClassReporting) {
+            this.missingClassReporting = missingClassReporting;
+            return this;
+        }
+
+        public Builder withIgnoreMissingAnnotations(boolean ignoreMissingAnnotations) {
+            this.ignoreMissingAnnotations = ignoreMissingAnnotations;
+            return this;
+        }
+
+        public Builder withBootstrapClasspath(Set<File> bootstrapClasspath) {
+            this.bootstrapClasspath = bootstrapClasspath;
+            return this;
+        }
+
+        /**
+         * @param metrics the metrics to record the timings and counters of the analysis into or null to not record any
+         * @return this builder
+         */
+        public Builder withMetrics(@Nullable AnalysisMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * @param scanExecutor the executor to parse the class files of the archives with or null to parse them in the
+         *                     compilation thread
+         * @return this builder
+         */
+        public Builder withScanExecutor(@Nullable Executor scanExecutor) {
+            this.scanExecutor = scanExecutor;
+            return this;
+        }
+
+        /**
+         * @param cacheDirectory the directory to persist the data reusable between analyses (like the index of the
+         *                       bootstrap classpath or the class tree of the API) in or null to not persist such data.
+         *                       The index of the bootstrap classpath is then only cached in memory and the class tree
+         *                       is not cached at all.
+         * @return this builder
+         */
+        public Builder withCacheDirectory(@Nullable File cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+            return this;
+        }
+
+        public JavaArchiveAnalyzer build() {
+            return new JavaArchiveAnalyzer(this);
+        }
+    }
+
     public JavaArchiveAnalyzer(API api, ExecutorService compilationExecutor,
         AnalysisConfiguration.MissingClassReporting missingClassReporting, boolean ignoreMissingAnnotations,
         Set<File> bootstrapClasspath) {
-        this.api = api;
-        this.executor = compilationExecutor;
-        this.missingClassReporting = missingClassReporting;
-        this.ignoreMissingAnnotations = ignoreMissingAnnotations;
+        this(builder(api, compilationExecutor).withMissingClassReporting(missingClassReporting)
+            .withIgnoreMissingAnnotations(ignoreMissingAnnotations).withBootstrapClasspath(bootstrapClasspath));
+    }
+
+    private JavaArchiveAnalyzer(Builder builder) {
+        this.api = builder.api;
+        this.executor = builder.compilationExecutor;
+        this.missingClassReporting = builder.missingClassReporting;
+        this.ignoreMissingAnnotations = builder.ignoreMissingAnnotations;
         this.probingEnvironment = new ProbingEnvironment(api);
-        this.bootstrapClasspath = bootstrapClasspath;
+        this.bootstrapClasspath = builder.bootstrapClasspath;
+        this.metrics = builder.metrics;
+        this.scanExecutor = builder.scanExecutor;
+        this.cacheDirectory = builder.cacheDirectory;
+    }
+
+    /**
+     * @param api                 the API to analyze
+     * @param compilationExecutor the executor to run the compilation of the API in
+     * @return a builder of the analyzer of the API
+     * @since 0.4
+     */
+    @Nonnull
+    public static Builder builder(@Nonnull API api, @Nonnull ExecutorService compilationExecutor) {
+        return new Builder(api, compilationExecutor);
     }
 
     @Nonnull
     @Override
     public JavaElementForest analyze() {
         StringWriter output = new StringWriter();
-        Compiler compiler = new Compiler(executor, output, api.getArchives(), api.getSupplementaryArchives());
+        Compiler compiler = new Compiler(executor, output, api.getArchives(), api.getSupplementaryArchives(),
+            metrics, scanExecutor);
         try {
             compilationValve = compiler
-                .compile(probingEnvironment, missingClassReporting, ignoreMissingAnnotations, bootstrapClasspath);
+                .compile(probingEnvironment, missingClassReporting, ignoreMissingAnnotations, bootstrapClasspath,
+                    cacheDirectory);
 
             probingEnvironment.getTree()
                 .setCompilationFuture(new CompilationFuture(compilationValve, output));
@@ -80,4 +180,12 @@ public final class JavaArchiveAnalyzer implements ArchiveAnalyzer {
     public CompilationValve getCompilationValve() {
         return compilationValve;
     }
+
+    @Override
+    public void close() {
+        if (compilationValve != null) {
+            compilationValve.removeCompiledResults();
+            compilationValve = null;
+        }
+    }
 }
@@ -20,24 +20,20 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.ResourceBundle;
-import java.util.Set;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-import org.revapi.API;
 import org.revapi.AnalysisContext;
-import org.revapi.Archive;
+import org.revapi.AnalysisMetrics;
 import org.revapi.Difference;
 import org.revapi.DifferenceAnalyzer;
 import org.revapi.Element;
 import org.revapi.Report;
-import org.revapi.java.compilation.CompilationValve;
 import org.revapi.java.compilation.ProbingEnvironment;
 import org.revapi.java.model.AnnotationElement;
 import org.revapi.java.model.FieldElement;
@@ -59,12 +55,11 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
     private static final Logger LOG = LoggerFactory.getLogger(JavaElementDifferenceAnalyzer.class);
 
     private final Iterable<Check> checks;
-    private final CompilationValve oldCompilationValve;
-    private final CompilationValve newCompilationValve;
     private final AnalysisConfiguration analysisConfiguration;
     private final ResourceBundle messages;
     private final ProbingEnvironment oldEnvironment;
     private final ProbingEnvironment newEnvironment;
+    private final AnalysisMetrics metrics;
 
     // NOTE: this doesn't have to be a stack of lists only because of the fact that annotations
     // are always sorted as last amongst sibling model elements.
@@ -73,12 +68,7 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
     private List<Difference> lastAnnotationResults;
 
     public JavaElementDifferenceAnalyzer(AnalysisContext analysisContext, ProbingEnvironment oldEnvironment,
-        CompilationValve oldValve,
-        ProbingEnvironment newEnvironment, CompilationValve newValve, Iterable<Check> checks,
-        AnalysisConfiguration analysisConfiguration) {
-
-        this.oldCompilationValve = oldValve;
-        this.newCompilationValve = newValve;
+        ProbingEnvironment newEnvironment, Iterable<Check> checks, AnalysisConfiguration analysisConfiguration) {
 
         this.checks = checks;
         for (Check c : checks) {
@@ -93,6 +83,7 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
 
         this.oldEnvironment = oldEnvironment;
         this.newEnvironment = newEnvironment;
+        this.metrics = analysisContext.getMetrics();
     }
 
 
@@ -115,15 +106,7 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
                     MethodElement m1 = (MethodElement) o1;
                     MethodElement m2 = (MethodElement) o2;
 
-                    @SuppressWarnings("ConstantConditions")
-                    String sig1 = ((TypeElement) m1.getParent()).getCanonicalName() + "::" +
-                        m1.getModelElement().getSimpleName().toString();
-
-                    @SuppressWarnings("ConstantConditions")
-                    String sig2 = ((TypeElement) m2.getParent()).getCanonicalName() + "::" +
-                        m2.getModelElement().getSimpleName().toString();
-
-                    return sig1.compareTo(sig2);
+                    return m1.getCorrespondenceSignature().compareTo(m2.getCorrespondenceSignature());
                 } else {
                     return o1.compareTo(o2);
                 }
@@ -131,15 +114,20 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
         };
     }
 
+    @Nullable
+    @Override
+    public Object getCorrespondenceKey(@Nonnull Element element) {
+        return JavaElementFactory.getCorrespondenceKey(element);
+    }
+
     @Override
     public void open() {
     }
 
     @Override
     public void close() {
-        LOG.trace("Tearing down compilation results");
-        oldCompilationValve.removeCompiledResults();
-        newCompilationValve.removeCompiledResults();
+        //the compilation results are torn down by the archive analyzers, which can outlive this analyzer when analyzing
+        //the evolution of an API
     }
 
     @Override
@@ -148,8 +136,10 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
 
         if (conforms(oldElement, newElement, TypeElement.class)) {
             for (Check c : checks) {
+                long time = startTiming();
                 c.visitClass(oldElement == null ? null : ((TypeElement) oldElement).getModelElement(),
                     newElement == null ? null : ((TypeElement) newElement).getModelElement());
+                recordTime(c, time);
             }
         } else if (conforms(oldElement, newElement, AnnotationElement.class)) {
             // annotation are always terminal elements and they also always sort as last elements amongst siblings, so
@@ -158,28 +148,36 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
                 lastAnnotationResults = new ArrayList<>();
             }
             for (Check c : checks) {
+                long time = startTiming();
                 List<Difference> cps = c
                     .visitAnnotation(oldElement == null ? null : ((AnnotationElement) oldElement).getAnnotation(),
                         newElement == null ? null : ((AnnotationElement) newElement).getAnnotation());
+                recordTime(c, time);
                 if (cps != null) {
                     lastAnnotationResults.addAll(cps);
                 }
             }
         } else if (conforms(oldElement, newElement, FieldElement.class)) {
             for (Check c : checks) {
+                long time = startTiming();
                 c.visitField(oldElement == null ? null : ((FieldElement) oldElement).getModelElement(),
                     newElement == null ? null : ((FieldElement) newElement).getModelElement());
+                recordTime(c, time);
             }
         } else if (conforms(oldElement, newElement, MethodElement.class)) {
             for (Check c : checks) {
+                long time = startTiming();
                 c.visitMethod(oldElement == null ? null : ((MethodElement) oldElement).getModelElement(),
                     newElement == null ? null : ((MethodElement) newElement).getModelElement());
+                recordTime(c, time);
             }
         } else if (conforms(oldElement, newElement, MethodParameterElement.class)) {
             for (Check c : checks) {
+                long time = startTiming();
                 c.visitMethodParameter(
                     oldElement == null ? null : ((MethodParameterElement) oldElement).getModelElement(),
                     newElement == null ? null : ((MethodParameterElement) newElement).getModelElement());
+                recordTime(c, time);
             }
         }
     }
@@ -193,7 +191,9 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
 
         List<Difference> differences = new ArrayList<>();
         for (Check c : checks) {
+            long time = startTiming();
             List<Difference> p = c.visitEnd();
+            recordTime(c, time);
             if (p != null) {
                 differences.addAll(p);
             }
@@ -209,6 +209,19 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
         }
         LOG.trace("Ended analysis of {} and {}.", oldElement, newElement);
 
+        if (!differences.isEmpty()) {
+            //the reporters can receive the report in their own threads while this analyzer already compares other
+            //elements (see AnalysisContext.Builder.withReportQueueCapacity()), so let the elements cache their string
+            //representations now, while the compiler backing them is not in use by anyone else
+            if (oldElement != null) {
+                oldElement.getFullHumanReadableString();
+            }
+
+            if (newElement != null) {
+                newElement.getFullHumanReadableString();
+            }
+        }
+
         ListIterator<Difference> it = differences.listIterator();
         while (it.hasNext()) {
             Difference d = it.next();
@@ -226,6 +239,16 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
         return new Report(differences, oldElement, newElement);
     }
 
+    private long startTiming() {
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    private void recordTime(Check check, long startTime) {
+        if (metrics != null) {
+            metrics.recordTime(JavaApiAnalyzer.CHECK, check.getClass().getName(), System.nanoTime() - startTime);
+        }
+    }
+
     private <T> boolean conforms(Object a, Object b, Class<T> cls) {
         boolean ca = a == null || cls.isAssignableFrom(a.getClass());
         boolean cb = b == null || cls.isAssignableFrom(b.getClass());
@@ -340,54 +363,22 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
     private List<TypeAndUseSite> getExamplePathToApiArchive(javax.lang.model.element.TypeElement type,
         UseSite bottomUse, ProbingEnvironment environment) {
 
-        ArrayList<TypeAndUseSite> ret = new ArrayList<>();
-
-        traverseToApi(type, bottomUse, ret, environment, new HashSet<>());
-
-        return ret;
-    }
-
-    private boolean traverseToApi(final javax.lang.model.element.TypeElement type, final UseSite currentUse,
-        final List<TypeAndUseSite> path, final ProbingEnvironment environment, final
-    Set<javax.lang.model.element.TypeElement> visitedTypes) {
-
-        javax.lang.model.element.TypeElement useType = findClassOf(currentUse.getSite()).getModelElement();
+        javax.lang.model.element.TypeElement useType = findClassOf(bottomUse.getSite()).getModelElement();
 
-        if (visitedTypes.contains(useType)) {
-            return false;
+        List<UseSite> uses = environment.getUsesOnPathToApi(useType);
+        if (uses == null) {
+            return Collections.emptyList();
         }
 
-        visitedTypes.add(useType);
+        ArrayList<TypeAndUseSite> ret = new ArrayList<>(uses.size() + 1);
+        ret.add(new TypeAndUseSite(type, bottomUse));
 
-        API api = currentUse.getSite().getApi();
-        Archive siteArchive = currentUse.getSite().getArchive();
-
-        if (contains(siteArchive, api.getArchives())) {
-            //the class is in the primary API
-            path.add(0, new TypeAndUseSite(type, currentUse));
-            return true;
-        } else {
-            Boolean ret = environment.visitUseSites(useType, new UseSite.Visitor<Boolean, Void>() {
-                @Nullable
-                @Override
-                public Boolean visit(@Nonnull javax.lang.model.element.TypeElement visitedType, @Nonnull UseSite use,
-                    @Nullable Void parameter) {
-                    if (traverseToApi(visitedType, use, path, environment, visitedTypes)) {
-                        path.add(0, new TypeAndUseSite(type, currentUse));
-                        return true;
-                    }
-                    return null;
-                }
-
-                @Nullable
-                @Override
-                public Boolean end(javax.lang.model.element.TypeElement type, @Nullable Void parameter) {
-                    return null;
-                }
-            }, null);
-
-            return ret == null ? false : ret;
+        for (UseSite use : uses) {
+            ret.add(new TypeAndUseSite(useType, use));
+            useType = findClassOf(use.getSite()).getModelElement();
         }
+
+        return ret;
     }
 
     private JavaTypeElement findClassOf(Element element) {
@@ -398,17 +389,6 @@ public final class JavaElementDifferenceAnalyzer implements DifferenceAnalyzer {
         return (JavaTypeElement) element;
     }
 
-    private static <T> boolean contains(T value, Iterable<? extends T> values) {
-        Iterator<? extends T> it = values.iterator();
-        while (it.hasNext()) {
-            if (value.equals(it.next())) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
     private static class TypeAndUseSite {
         final javax.lang.model.element.TypeElement type;
         final UseSite useSite;
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.java.compilation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Type;
+import org.revapi.Archive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves the class files of the analyzed archives to the compiler as its class path, so that the archives don't need
+ * to be copied to the filesystem for the compiler to see them.
+ * <p>
+ * The file-backed jar archives are read directly from their files, the rest of the archives is read into memory once.
+ * If more archives contain a class with the same name, the one from the archive that comes first wins, as it would on
+ * a class path. The rest of the locations, most importantly the bootstrap class path, are handled by the standard
+ * file manager.
+ *
+ * @author agent
+ * @since 0.4
+ */
+final class ArchiveFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+    private static final Logger LOG = LoggerFactory.getLogger(ArchiveFileManager.class);
+
+    private final List<Archive> archives = new ArrayList<>();
+    private final List<ZipFile> openJars = new ArrayList<>();
+
+    /**
+     * Keys are package names, values are the class files in them keyed by their binary names. Initialized lazily on
+     * the first access so that the archives are not read in the thread creating the compilation task.
+     */
+    private Map<String, Map<String, ArchiveClassFile>> packages;
+
+    ArchiveFileManager(StandardJavaFileManager fileManager, Iterable<? extends Archive> classPath,
+        Iterable<? extends Archive> additionalClassPath) throws IOException {
+        super(fileManager);
+
+        //make sure the standard file manager doesn't fall back to the current directory or the CLASSPATH
+        fileManager.setLocation(StandardLocation.CLASS_PATH, Collections.emptyList());
+
+        addAll(classPath);
+        addAll(additionalClassPath);
+    }
+
+    private void addAll(Iterable<? extends Archive> archives) {
+        if (archives == null) {
+            return;
+        }
+
+        for (Archive a : archives) {
+            this.archives.add(a);
+        }
+    }
+
+    @Override
+    public boolean hasLocation(Location location) {
+        return location == StandardLocation.CLASS_PATH || super.hasLocation(location);
+    }
+
+    @Override
+    public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds,
+        boolean recurse) throws IOException {
+
+        if (location != StandardLocation.CLASS_PATH) {
+            return super.list(location, packageName, kinds, recurse);
+        }
+
+        if (!kinds.contains(JavaFileObject.Kind.CLASS)) {
+            return Collections.emptyList();
+        }
+
+        Map<String, Map<String, ArchiveClassFile>> packages = getPackages();
+
+        if (!recurse) {
+            Map<String, ArchiveClassFile> classes = packages.get(packageName);
+            return classes == null ? Collections.emptyList() : new ArrayList<>(classes.values());
+        }
+
+        List<JavaFileObject> ret = new ArrayList<>();
+        String prefix = packageName + ".";
+        for (Map.Entry<String, Map<String, ArchiveClassFile>> e : packages.entrySet()) {
+            if (packageName.isEmpty() || e.getKey().equals(packageName) || e.getKey().startsWith(prefix)) {
+                ret.addAll(e.getValue().values());
+            }
+        }
+
+        return ret;
+    }
+
+    @Override
+    public String inferBinaryName(Location location, JavaFileObject file) {
+        if (file instanceof ArchiveClassFile) {
+            return ((ArchiveClassFile) file).binaryName;
+        }
+
+        return super.inferBinaryName(location, file);
+    }
+
+    @Override
+    public boolean isSameFile(FileObject a, FileObject b) {
+        if (a instanceof ArchiveClassFile || b instanceof ArchiveClassFile) {
+            return a == b;
+        }
+
+        return super.isSameFile(a, b);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+
+        for (ZipFile jar : openJars) {
+            try {
+                jar.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        openJars.clear();
+
+        try {
+            super.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            } else {
+                failure.addSuppressed(e);
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private Map<String, Map<String, ArchiveClassFile>> getPackages() throws IOException {
+        if (packages == null) {
+            packages = new HashMap<>();
+
+            for (Archive a : archives) {
+                if (a.getName().toLowerCase().endsWith(".class")) {
+                    indexClassFile(a);
+                } else if (a instanceof Archive.FileBacked) {
+                    indexJarFile((Archive.FileBacked) a);
+                } else {
+                    indexJarArchive(a);
+                }
+            }
+        }
+
+        return packages;
+    }
+
+    private void indexJarFile(Archive.FileBacked archive) throws IOException {
+        ZipFile jar;
+        try {
+            jar = new ZipFile(archive.getPath().toFile());
+        } catch (ZipException e) {
+            LOG.debug("Archive " + archive.getName() + " is not a jar file. Ignoring it on the class path.", e);
+            return;
+        }
+
+        openJars.add(jar);
+
+        String jarPath = archive.getPath().toUri().getPath();
+
+        Enumeration<? extends ZipEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            if (isClassFile(entry)) {
+                add(new JarEntryClassFile(toUri("jar", jarPath + "!/" + entry.getName()), archive.getName(),
+                    entry.getName(), jar, entry));
+            }
+        }
+    }
+
+    private void indexJarArchive(Archive archive) throws IOException {
+        try (ZipInputStream jar = new ZipInputStream(archive.openStream())) {
+            ZipEntry entry = jar.getNextEntry();
+            while (entry != null) {
+                if (isClassFile(entry)) {
+                    add(new InMemoryClassFile(toUri("archive", "/" + archive.getName() + "!/" + entry.getName()),
+                        archive.getName(), entry.getName(), readAll(jar)));
+                }
+
+                entry = jar.getNextEntry();
+            }
+        }
+    }
+
+    private void indexClassFile(Archive archive) throws IOException {
+        byte[] data;
+        try (InputStream in = archive.openStream()) {
+            data = readAll(in);
+        }
+
+        String entryName = new ClassReader(data).getClassName() + ".class";
+
+        add(new InMemoryClassFile(toUri("archive", "/" + archive.getName() + "!/" + entryName), archive.getName(),
+            entryName, data));
+    }
+
+    private void add(ArchiveClassFile file) {
+        String binaryName = file.binaryName;
+        int lastDot = binaryName.lastIndexOf('.');
+        String packageName = lastDot == -1 ? "" : binaryName.substring(0, lastDot);
+
+        Map<String, ArchiveClassFile> classes = packages.get(packageName);
+        if (classes == null) {
+            classes = new LinkedHashMap<>();
+            packages.put(packageName, classes);
+        }
+
+        classes.putIfAbsent(binaryName, file);
+    }
+
+    private static boolean isClassFile(ZipEntry entry) {
+        return !entry.isDirectory() && entry.getName().toLowerCase().endsWith(".class");
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int cnt;
+        while ((cnt = in.read(buffer)) != -1) {
+            out.write(buffer, 0, cnt);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static URI toUri(String scheme, String path) {
+        try {
+            return new URI(scheme, null, path, null);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Failed to create a URI of a class file: " + path, e);
+        }
+    }
+
+    private abstract static class ArchiveClassFile extends SimpleJavaFileObject {
+        final String binaryName;
+        private final String name;
+
+        ArchiveClassFile(URI uri, String archiveName, String entryName) {
+            super(uri, Kind.CLASS);
+            this.binaryName = Type.getObjectType(entryName.substring(0, entryName.length() - 6)).getClassName();
+            this.name = archiveName + "(" + entryName + ")";
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isNameCompatible(String simpleName, Kind kind) {
+            if (kind != Kind.CLASS) {
+                return false;
+            }
+
+            int lastDot = binaryName.lastIndexOf('.');
+            return binaryName.substring(lastDot + 1).equals(simpleName);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final class JarEntryClassFile extends ArchiveClassFile {
+        private final ZipFile jar;
+        private final ZipEntry entry;
+
+        JarEntryClassFile(URI uri, String archiveName, String entryName, ZipFile jar, ZipEntry entry) {
+            super(uri, archiveName, entryName);
+            this.jar = jar;
+            this.entry = entry;
+        }
+
+        @Override
+        public InputStream openInputStream() throws IOException {
+            return jar.getInputStream(entry);
+        }
+
+        @Override
+        public long getLastModified() {
+            return entry.getTime();
+        }
+    }
+
+    private static final class InMemoryClassFile extends ArchiveClassFile {
+        private final byte[] data;
+
+        InMemoryClassFile(URI uri, String archiveName, String entryName, byte[] data) {
+            super(uri, archiveName, entryName);
+            this.data = data;
+        }
+
+        @Override
+        public InputStream openInputStream() {
+            return new ByteArrayInputStream(data);
+        }
+    }
+}
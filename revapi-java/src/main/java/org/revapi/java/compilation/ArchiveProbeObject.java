@@ -79,7 +79,7 @@ final class ArchiveProbeObject extends SimpleJavaFileObject {
         }
 
         //notice that we don't actually need to generate any complicated code. Having the classes on the classpath
-        //is enough for them to be present in the model captured during the annotation processing.
-        source = "@" + MarkerAnnotationObject.CLASS_NAME + "\npublic class " + CLASS_NAME + "\n{}\n";
+        //is enough for them to be present in the model of the compilation.
+        source = "public class " + CLASS_NAME + "\n{}\n";
     }
 }
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.java.compilation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The binary names of all the classes on a bootstrap classpath.
+ * <p>
+ * Enumerating the bootstrap jars is expensive and their contents only change with the JDK, so the class names of
+ * each jar are kept in a JVM-wide cache, keyed by the absolute path, size and modification time of the jar. This way
+ * the old and new API and any subsequent analyses in the same JVM share them. If a cache directory is configured,
+ * the class names are also stored there, so that they survive the JVM.
+ *
+ * @author agent
+ * @since 0.4
+ */
+final class BootstrapClassIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(BootstrapClassIndex.class);
+
+    private static final int MAGIC = 0x52564249; // "RVBI"
+    private static final int VERSION = 1;
+
+    private static final ConcurrentMap<String, JarIndex> JAR_INDICES = new ConcurrentHashMap<>();
+
+    private final JarIndex[] jars;
+
+    private BootstrapClassIndex(JarIndex[] jars) {
+        this.jars = jars;
+    }
+
+    /**
+     * Returns the index of the provided jars, reusing the indices of the jars that have not changed since they were
+     * last indexed either in this JVM or, if {@code cacheDirectory} is not null, by any other.
+     *
+     * @param bootstrapClasspath the jars on the bootstrap classpath
+     * @param cacheDirectory the directory to persist the indices in or null if they should only be kept in memory
+     */
+    static BootstrapClassIndex of(Collection<File> bootstrapClasspath, @Nullable File cacheDirectory) {
+        List<JarIndex> jars = new ArrayList<>(bootstrapClasspath.size());
+        for (File f : bootstrapClasspath) {
+            JarIndex index = getJarIndex(f.getAbsoluteFile(), cacheDirectory);
+            if (index != null) {
+                jars.add(index);
+            }
+        }
+
+        return new BootstrapClassIndex(jars.toArray(new JarIndex[jars.size()]));
+    }
+
+    /**
+     * Forgets the indices kept in memory, so that the jars are indexed anew or read from the cache directory.
+     */
+    static void clearInMemoryCache() {
+        JAR_INDICES.clear();
+    }
+
+    boolean contains(String binaryName) {
+        for (JarIndex jar : jars) {
+            if (Arrays.binarySearch(jar.classes, binaryName) >= 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    int size() {
+        int ret = 0;
+        for (JarIndex jar : jars) {
+            ret += jar.classes.length;
+        }
+
+        return ret;
+    }
+
+    private static JarIndex getJarIndex(File jar, @Nullable File cacheDirectory) {
+        String path = jar.getPath();
+        long length = jar.length();
+        long lastModified = jar.lastModified();
+
+        JarIndex index = JAR_INDICES.get(path);
+        if (index != null && index.isOf(length, lastModified)) {
+            return index;
+        }
+
+        File cacheFile = cacheDirectory == null ? null : new File(cacheDirectory, getCacheFileName(path));
+
+        if (cacheFile != null && cacheFile.exists()) {
+            index = load(cacheFile, path, length, lastModified);
+        } else {
+            index = null;
+        }
+
+        if (index == null) {
+            index = build(jar, length, lastModified);
+            if (index == null) {
+                return null;
+            }
+
+            if (cacheFile != null) {
+                store(index, cacheFile);
+            }
+        }
+
+        JAR_INDICES.put(path, index);
+
+        return index;
+    }
+
+    private static JarIndex build(File jar, long length, long lastModified) {
+        List<String> classes = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.endsWith(".class")) {
+                    classes.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("Failed to analyze bootstrap class path entry at " + jar.getAbsolutePath(), e);
+            return null;
+        }
+
+        String[] sorted = classes.toArray(new String[classes.size()]);
+        Arrays.sort(sorted);
+
+        return new JarIndex(jar.getPath(), length, lastModified, sorted);
+    }
+
+    private static String getCacheFileName(String path) {
+        //the path is checked when loading, so collisions of the hash only cause the index to be rebuilt
+        return "bootstrap-classes-" + Integer.toHexString(path.hashCode()) + ".idx";
+    }
+
+    private static JarIndex load(File cacheFile, String path, long length, long lastModified) {
+        try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(cacheFile.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !path.equals(in.readUTF())
+                || in.readLong() != length || in.readLong() != lastModified) {
+                return null;
+            }
+
+            //the names are sorted, so each is stored as the length of the prefix shared with the previous one and
+            //the rest of it
+            String[] classes = new String[in.readInt()];
+            String previous = "";
+            for (int i = 0; i < classes.length; ++i) {
+                int prefix = in.readUnsignedShort();
+                previous = previous.substring(0, prefix) + in.readUTF();
+                classes[i] = previous;
+            }
+
+            return new JarIndex(path, length, lastModified, classes);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to read the cached index of bootstrap classes from " + cacheFile + ". It will be rebuilt.",
+                e);
+            return null;
+        }
+    }
+
+    private static void store(JarIndex index, File cacheFile) {
+        try {
+            Path dir = cacheFile.getParentFile().toPath();
+            Files.createDirectories(dir);
+
+            //write to a temporary file first so that concurrent readers never see a partially written index
+            Path tmp = Files.createTempFile(dir, cacheFile.getName(), ".tmp");
+            try {
+                try (DataOutputStream out =
+                         new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeUTF(index.path);
+                    out.writeLong(index.length);
+                    out.writeLong(index.lastModified);
+                    out.writeInt(index.classes.length);
+
+                    String previous = "";
+                    for (String c : index.classes) {
+                        int prefix = commonPrefixLength(previous, c);
+                        out.writeShort(prefix);
+                        out.writeUTF(c.substring(prefix));
+                        previous = c;
+                    }
+                }
+
+                try {
+                    Files.move(tmp, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to store the index of bootstrap classes of " + index.path + " in " + cacheFile + ".", e);
+        }
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(Math.min(a.length(), b.length()), 0xFFFF);
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            ++i;
+        }
+
+        return i;
+    }
+
+    private static final class JarIndex {
+        final String path;
+        final long length;
+        final long lastModified;
+        final String[] classes;
+
+        JarIndex(String path, long length, long lastModified, String[] classes) {
+            this.path = path;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.classes = classes;
+        }
+
+        boolean isOf(long length, long lastModified) {
+            return this.length == length && this.lastModified == lastModified;
+        }
+    }
+}
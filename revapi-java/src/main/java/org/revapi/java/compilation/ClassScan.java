@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.java.compilation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.revapi.Archive;
+
+/**
+ * The result of parsing a single class file. The class files can be parsed concurrently but the
+ * {@link TypeTreeConstructor} is not thread-safe and its results depend on the order in which it sees the classes.
+ * Therefore the parsing only records what it found in the class and the scans are then replayed into the type tree
+ * constructor one by one, in the same order as the classes appear in the archives.
+ *
+ * @author agent
+ * @since 0.4
+ */
+final class ClassScan {
+    private final Archive archive;
+    private final String classBinaryName;
+    private final boolean apiType;
+    private final List<String> innerClassNames = new ArrayList<>();
+    private final List<String> usedTypeBinaryNames = new ArrayList<>();
+    private final List<RawUseSite> useSites = new ArrayList<>();
+
+    ClassScan(Archive archive, String classBinaryName, boolean apiType) {
+        this.archive = archive;
+        this.classBinaryName = classBinaryName;
+        this.apiType = apiType;
+    }
+
+    /**
+     * @see InnerClassHierarchyConstructor#addName(String, String)
+     */
+    void addInnerClassName(String outerName, String innerName) {
+        innerClassNames.add(outerName);
+        innerClassNames.add(innerName);
+    }
+
+    /**
+     * @see TypeTreeConstructor.ClassProcessor#addUse(String, RawUseSite)
+     */
+    void addUse(String usedTypeBinaryName, RawUseSite useSite) {
+        usedTypeBinaryNames.add(usedTypeBinaryName);
+        useSites.add(useSite);
+    }
+
+    /**
+     * Feeds the recorded class into the type tree constructor as if it was processed directly while parsing.
+     *
+     * @param typeTreeConstructor the type tree constructor to replay the scan into
+     */
+    void replay(TypeTreeConstructor typeTreeConstructor) {
+        TypeTreeConstructor.ClassProcessor classProcessor =
+            typeTreeConstructor.createApiClassProcessor(archive, classBinaryName, apiType);
+
+        //the inner class hierarchy constructor must only be created if there are any names, because its existence
+        //marks the class as an inner class
+        for (int i = 0; i < innerClassNames.size(); i += 2) {
+            classProcessor.getInnerClassHierarchyConstructor()
+                .addName(innerClassNames.get(i), innerClassNames.get(i + 1));
+        }
+
+        for (int i = 0; i < useSites.size(); ++i) {
+            classProcessor.addUse(usedTypeBinaryNames.get(i), useSites.get(i));
+        }
+
+        classProcessor.commitClass();
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.java.compilation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+import org.revapi.API;
+import org.revapi.Archive;
+import org.revapi.java.model.TypeElement;
+import org.revapi.java.spi.UseSite;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the results of the {@link ClassTreeInitializer}, i.e. the classes forming the API, their use sites and the
+ * classes that could not be found, so that analyzing the same API again (typically the old version of it, which
+ * usually is an already released artifact) doesn't need to scan its archives.
+ * <p>
+ * The cached trees are identified by a hash of the primary and supplementary archives, the locations, sizes and
+ * modification times of the jars on the bootstrap classpath and the configuration that affects the scanning. The
+ * primary archives are hashed by their contents, because they are often freshly built and therefore modified even if
+ * their contents stay the same. The supplementary archives backed by files are hashed by their locations, sizes and
+ * modification times, like the bootstrap jars, only the contents of the other supplementary archives need to be read.
+ * Only a limited number of the most recently used trees is kept in the cache directory.
+ *
+ * @author agent
+ * @since 0.4
+ */
+final class ClassTreeCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ClassTreeCache.class);
+
+    private static final int MAGIC = 0x52564354; // "RVCT"
+    private static final int VERSION = 1;
+    private static final String FILE_PREFIX = "class-tree-";
+    private static final String FILE_SUFFIX = ".bin";
+    private static final int MAX_CACHED_TREES = 32;
+
+    private final File cacheDirectory;
+    private final File cacheFile;
+    private final String key;
+    private final List<Archive> archives;
+
+    private ClassTreeCache(File cacheDirectory, String key, List<Archive> archives) {
+        this.cacheDirectory = cacheDirectory;
+        this.cacheFile = new File(cacheDirectory, FILE_PREFIX + key + FILE_SUFFIX);
+        this.key = key;
+        this.archives = archives;
+    }
+
+    /**
+     * Computes the key of the tree of the provided API. This reads the contents of its primary archives and of those of
+     * its supplementary archives that are not backed by files.
+     *
+     * @param api the API to cache the tree of
+     * @param bootstrapClasspath the bootstrap classpath the tree is built against
+     * @param ignoreMissingAnnotations whether the missing annotation types were ignored while building the tree
+     * @param cacheDirectory the directory to keep the cached trees in
+     */
+    static ClassTreeCache of(API api, Collection<File> bootstrapClasspath, boolean ignoreMissingAnnotations,
+        File cacheDirectory) throws IOException {
+
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+
+        List<Archive> archives = new ArrayList<>();
+
+        updateDigest(digest, VERSION + ":" + ignoreMissingAnnotations);
+
+        //the archives are told apart by their position, the names are irrelevant for the contents of the tree
+        int primaryArchiveCount = 0;
+        for (Archive a : api.getArchives()) {
+            archives.add(a);
+            primaryArchiveCount++;
+        }
+
+        if (api.getSupplementaryArchives() != null) {
+            for (Archive a : api.getSupplementaryArchives()) {
+                archives.add(a);
+            }
+        }
+
+        updateDigest(digest, ":" + primaryArchiveCount + ":" + archives.size());
+
+        for (int i = 0; i < archives.size(); ++i) {
+            Archive a = archives.get(i);
+            //the primary archives are often rebuilt before each analysis, so their modification times would never
+            //match. The supplementary archives are typically just resolved from a repository.
+            if (i >= primaryArchiveCount && a instanceof Archive.FileBacked) {
+                //just like with the bootstrap jars, checking the file is enough to tell that it didn't change
+                Path path = ((Archive.FileBacked) a).getPath().toAbsolutePath();
+                updateDigest(digest, "file:" + path + ":" + Files.size(path) + ":"
+                    + Files.getLastModifiedTime(path).toMillis());
+            } else {
+                updateDigest(digest, "stream");
+                long size = 0;
+                try (InputStream data = a.openStream()) {
+                    int len;
+                    while ((len = data.read(buffer)) != -1) {
+                        digest.update(buffer, 0, len);
+                        size += len;
+                    }
+                }
+                updateDigest(digest, ":" + size);
+            }
+        }
+
+        //the bootstrap jars are only ever changed by updating the JDK, so their contents needn't be read
+        String[] bootstrap = new String[bootstrapClasspath.size()];
+        int i = 0;
+        for (File f : bootstrapClasspath) {
+            bootstrap[i++] = f.getAbsolutePath() + ":" + f.length() + ":" + f.lastModified();
+        }
+        Arrays.sort(bootstrap);
+
+        for (String b : bootstrap) {
+            updateDigest(digest, b);
+        }
+
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return new ClassTreeCache(cacheDirectory, key.toString(), archives);
+    }
+
+    /**
+     * If the tree is cached, adds its classes to the roots of the tree of the environment and their use sites to the
+     * use site map of the environment.
+     *
+     * @param environment the environment to initialize
+     * @return the binary names of the API classes that could not be found in the archives or null if the tree is not
+     * cached
+     */
+    @Nullable
+    List<String> load(ProbingEnvironment environment) {
+        if (!cacheFile.exists()) {
+            return null;
+        }
+
+        List<TypeElement> roots;
+        List<String> unknownTypes;
+        Map<String, Set<RawUseSite>> useSites;
+
+        try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(new GZIPInputStream(Files.newInputStream(cacheFile.toPath()))))) {
+
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !key.equals(in.readUTF())) {
+                return null;
+            }
+
+            String[] strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; ++i) {
+                strings[i] = in.readUTF();
+            }
+
+            int rootCount = in.readInt();
+            roots = new ArrayList<>(rootCount);
+            for (int i = 0; i < rootCount; ++i) {
+                Archive archive = archives.get(in.readInt());
+                String binaryName = strings[in.readInt()];
+                String canonicalName = strings[in.readInt()];
+                roots.add(new TypeElement(environment, archive, binaryName, canonicalName));
+            }
+
+            int unknownTypeCount = in.readInt();
+            unknownTypes = new ArrayList<>(unknownTypeCount);
+            for (int i = 0; i < unknownTypeCount; ++i) {
+                unknownTypes.add(strings[in.readInt()]);
+            }
+
+            int useSiteCount = in.readInt();
+            useSites = new HashMap<>(useSiteCount * 4 / 3 + 1);
+            for (int i = 0; i < useSiteCount; ++i) {
+                String type = strings[in.readInt()];
+                int siteCount = in.readInt();
+                Set<RawUseSite> sites = new HashSet<>(siteCount * 4 / 3 + 1);
+                for (int j = 0; j < siteCount; ++j) {
+                    UseSite.Type useType = UseSite.Type.valueOf(strings[in.readInt()]);
+                    RawUseSite.SiteType siteType = RawUseSite.SiteType.valueOf(strings[in.readInt()]);
+                    String siteClass = strings[in.readInt()];
+                    int siteName = in.readInt();
+                    int siteDescriptor = in.readInt();
+                    int sitePosition = in.readInt();
+
+                    sites.add(new RawUseSite(useType, siteType, siteClass, siteName < 0 ? null : strings[siteName],
+                        siteDescriptor < 0 ? null : strings[siteDescriptor], sitePosition));
+                }
+
+                useSites.put(type, sites);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to read the cached class tree from " + cacheFile + ". The archives will be scanned.", e);
+            return null;
+        }
+
+        environment.getTree().getRootsUnsafe().addAll(roots);
+        environment.getUseSiteMap().putAll(useSites);
+
+        //mark the tree as recently used, so that it survives the pruning of the cache directory
+        if (!cacheFile.setLastModified(System.currentTimeMillis())) {
+            LOG.debug("Failed to update the modification time of the cached class tree {}.", cacheFile);
+        }
+
+        return unknownTypes;
+    }
+
+    /**
+     * Stores the tree of the environment. This must be called before any missing classes are added to the tree.
+     *
+     * @param environment the environment with the initialized tree
+     * @param unknownTypeBinaryNames the binary names of the API classes that could not be found in the archives
+     */
+    void store(ProbingEnvironment environment, List<String> unknownTypeBinaryNames) {
+        Map<Archive, Integer> archiveIndices = new IdentityHashMap<>();
+        for (int i = 0; i < archives.size(); ++i) {
+            archiveIndices.putIfAbsent(archives.get(i), i);
+        }
+
+        StringTable strings = new StringTable();
+        Set<TypeElement> roots = environment.getTree().getRootsUnsafe();
+        Map<String, Set<RawUseSite>> useSites = environment.getUseSiteMap();
+
+        int[] rootData = new int[roots.size() * 3];
+        int i = 0;
+        for (TypeElement t : roots) {
+            Integer archiveIndex = archiveIndices.get(t.getArchive());
+            if (archiveIndex == null) {
+                LOG.debug("Not caching the class tree, because {} doesn't come from any of the API archives.", t);
+                return;
+            }
+
+            rootData[i++] = archiveIndex;
+            rootData[i++] = strings.indexOf(t.getBinaryName());
+            rootData[i++] = strings.indexOf(t.getCanonicalName());
+        }
+
+        for (String t : unknownTypeBinaryNames) {
+            strings.indexOf(t);
+        }
+
+        for (Map.Entry<String, Set<RawUseSite>> e : useSites.entrySet()) {
+            strings.indexOf(e.getKey());
+            for (RawUseSite s : e.getValue()) {
+                strings.indexOf(s.getUseType().name());
+                strings.indexOf(s.getSiteType().name());
+                strings.indexOf(s.getSiteClass());
+                strings.indexOf(s.getSiteName());
+                strings.indexOf(s.getSiteDescriptor());
+            }
+        }
+
+        try {
+            Files.createDirectories(cacheDirectory.toPath());
+
+            //write to a temporary file first so that concurrent analyses never see a partially written tree
+            Path tmp = Files.createTempFile(cacheDirectory.toPath(), cacheFile.getName(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeUTF(key);
+
+                    out.writeInt(strings.strings.size());
+                    for (String s : strings.strings) {
+                        out.writeUTF(s);
+                    }
+
+                    out.writeInt(roots.size());
+                    for (int r : rootData) {
+                        out.writeInt(r);
+                    }
+
+                    out.writeInt(unknownTypeBinaryNames.size());
+                    for (String t : unknownTypeBinaryNames) {
+                        out.writeInt(strings.indexOf(t));
+                    }
+
+                    out.writeInt(useSites.size());
+                    for (Map.Entry<String, Set<RawUseSite>> e : useSites.entrySet()) {
+                        out.writeInt(strings.indexOf(e.getKey()));
+                        out.writeInt(e.getValue().size());
+                        for (RawUseSite s : e.getValue()) {
+                            out.writeInt(strings.indexOf(s.getUseType().name()));
+                            out.writeInt(strings.indexOf(s.getSiteType().name()));
+                            out.writeInt(strings.indexOf(s.getSiteClass()));
+                            out.writeInt(strings.indexOf(s.getSiteName()));
+                            out.writeInt(strings.indexOf(s.getSiteDescriptor()));
+                            out.writeInt(s.getSitePosition());
+                        }
+                    }
+                }
+
+                try {
+                    Files.move(tmp, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to store the class tree in " + cacheFile + ".", e);
+            return;
+        }
+
+        prune();
+    }
+
+    /**
+     * Removes the least recently used trees from the cache directory, so that it doesn't grow with each new version
+     * of the API analyzed.
+     */
+    private void prune() {
+        File[] trees = cacheDirectory.listFiles((dir, name) -> name.startsWith(FILE_PREFIX)
+            && name.endsWith(FILE_SUFFIX));
+
+        if (trees == null || trees.length <= MAX_CACHED_TREES) {
+            return;
+        }
+
+        long[] lastModified = new long[trees.length];
+        Integer[] order = new Integer[trees.length];
+        for (int i = 0; i < trees.length; ++i) {
+            lastModified[i] = trees[i].lastModified();
+            order[i] = i;
+        }
+
+        Arrays.sort(order, (a, b) -> Long.compare(lastModified[b], lastModified[a]));
+
+        for (int i = MAX_CACHED_TREES; i < order.length; ++i) {
+            File f = trees[order[i]];
+            if (!f.equals(cacheFile) && !f.delete()) {
+                LOG.debug("Failed to delete the cached class tree {}.", f);
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("SHA-256 is guaranteed to be supported by every JVM.", e);
+        }
+    }
+
+    private static void updateDigest(MessageDigest digest, String data) {
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        digest.update(bytes);
+        //separate the strings so that their concatenations can't collide
+        digest.update((byte) 0);
+    }
+
+    private static final class StringTable {
+        final List<String> strings = new ArrayList<>();
+        final Map<String, Integer> indices = new HashMap<>();
+
+        int indexOf(@Nullable String string) {
+            if (string == null) {
+                return -1;
+            }
+
+            Integer index = indices.get(string);
+            if (index == null) {
+                index = strings.size();
+                strings.add(string);
+                indices.put(string, index);
+            }
+
+            return index;
+        }
+    }
+}
@@ -16,14 +16,28 @@
 
 package org.revapi.java.compilation;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import javax.annotation.Nullable;
@@ -35,8 +49,10 @@ import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
+import org.revapi.AnalysisMetrics;
 import org.revapi.Archive;
 import org.revapi.java.AnalysisConfiguration;
+import org.revapi.java.JavaApiAnalyzer;
 import org.revapi.java.model.MissingClassElement;
 import org.revapi.java.model.TypeElement;
 import org.revapi.java.spi.JavaElement;
@@ -57,47 +73,56 @@ final class ClassTreeInitializer {
     private final AnalysisConfiguration.MissingClassReporting reporting;
     private final boolean ignoreMissingAnnotations;
     private final Set<File> bootstrapClasspath;
-
+    private final File cacheDirectory;
+    private final AnalysisMetrics metrics;
+    private final Executor scanExecutor;
+
+    /**
+     * @param cacheDirectory the directory to persist the data reusable between analyses in or null if the class tree
+     *                       should not be cached
+     * @param scanExecutor if not null, the class files are parsed concurrently using this executor. Tasks not yet
+     *                     started by the executor when their results are needed are run by the initializing thread,
+     *                     so the executor can have any number of threads.
+     */
     public ClassTreeInitializer(ProbingEnvironment environment,
         AnalysisConfiguration.MissingClassReporting missingClassReporting, boolean ignoreMissingAnnotations,
-        Set<File> bootstrapClasspath) {
+        Set<File> bootstrapClasspath, @Nullable File cacheDirectory, @Nullable AnalysisMetrics metrics,
+        @Nullable Executor scanExecutor) {
         this.environment = environment;
         this.reporting = missingClassReporting;
         this.ignoreMissingAnnotations = ignoreMissingAnnotations;
         this.bootstrapClasspath = bootstrapClasspath;
+        this.cacheDirectory = cacheDirectory;
+        this.metrics = metrics;
+        this.scanExecutor = scanExecutor;
     }
 
     public void initTree() throws IOException {
-        InitTreeContext context = new InitTreeContext(new TypeTreeConstructor(environment, bootstrapClasspath));
-
         long time = System.currentTimeMillis();
 
-        for (Archive a : environment.getApi().getArchives()) {
-            LOG.trace("Processing archive {}", a.getName());
-            processArchive(a, context);
-        }
+        ClassTreeCache cache = cacheDirectory == null ? null :
+            ClassTreeCache.of(environment.getApi(), bootstrapClasspath, ignoreMissingAnnotations, cacheDirectory);
 
-        if (context.typeTreeConstructor.hasUnknownClasses()
-                && environment.getApi().getSupplementaryArchives() != null) {
+        List<String> unknownTypes = cache == null ? null : cache.load(environment);
 
-            context.processingSupplementaryArchives = true;
+        long constructionTime;
+        if (unknownTypes == null) {
+            TypeTreeConstructor typeTreeConstructor = scanArchives();
 
-            for (Archive a : environment.getApi().getSupplementaryArchives()) {
-                LOG.trace("Processing archive {}", a.getName());
-                processArchive(a, context);
+            constructionTime = metrics == null ? 0 : System.nanoTime();
 
-                // check for additional class changes inside this loop so that we exit as soon as possible if we
-                // clear out the additional classes early.
-                if (!context.typeTreeConstructor.hasUnknownClasses()) {
-                    break;
-                }
+            unknownTypes = typeTreeConstructor.construct().getUnknownTypeBinaryNames();
+
+            if (cache != null) {
+                cache.store(environment, unknownTypes);
             }
+        } else {
+            LOG.debug("Class tree of {} loaded from the cache.", environment.getApi());
+            constructionTime = metrics == null ? 0 : System.nanoTime();
         }
 
-        TypeTreeConstructor.Results results = context.typeTreeConstructor.construct();
-
-        if (!results.getUnknownTypeBinaryNames().isEmpty()) {
-            List<String> prettyNames = new ArrayList<>(results.getUnknownTypeBinaryNames());
+        if (!unknownTypes.isEmpty()) {
+            List<String> prettyNames = new ArrayList<>(unknownTypes);
             Collections.sort(prettyNames);
 
             if (reporting == null || reporting == AnalysisConfiguration.MissingClassReporting.ERROR) {
@@ -114,13 +139,20 @@ final class ClassTreeInitializer {
                     " could not be located: " + prettyNames);
                 break;
             case REPORT:
-                for (String binary : results.getUnknownTypeBinaryNames()) {
+                for (String binary : unknownTypes) {
                     TypeElement t = new MissingClassElement(environment, binary, binary);
                     environment.getTree().getRootsUnsafe().add(t);
                 }
             }
         }
 
+        //no more roots are going to be added
+        environment.getTree().freeze();
+
+        if (metrics != null) {
+            metrics.recordTime(JavaApiAnalyzer.TREE_CONSTRUCTION, null, System.nanoTime() - constructionTime);
+        }
+
         if (LOG.isTraceEnabled()) {
             time = System.currentTimeMillis() - time;
             final int[] num = new int[1];
@@ -141,41 +173,135 @@ final class ClassTreeInitializer {
         }
     }
 
+    private TypeTreeConstructor scanArchives() throws IOException {
+        InitTreeContext context =
+            new InitTreeContext(new TypeTreeConstructor(environment, bootstrapClasspath, cacheDirectory));
+
+        for (Archive a : environment.getApi().getArchives()) {
+            LOG.trace("Processing archive {}", a.getName());
+            processArchive(a, context);
+        }
+
+        if (context.typeTreeConstructor.hasUnknownClasses()
+                && environment.getApi().getSupplementaryArchives() != null) {
+
+            context.processingSupplementaryArchives = true;
+
+            try (SupplementaryArchives supplementaryArchives = new SupplementaryArchives(context)) {
+                for (Archive a : environment.getApi().getSupplementaryArchives()) {
+                    LOG.trace("Indexing archive {}", a.getName());
+                    supplementaryArchives.index(a);
+                }
+
+                supplementaryArchives.scanUsedClasses();
+            }
+        }
+
+        return context.typeTreeConstructor;
+    }
+
     private void processArchive(Archive a, InitTreeContext context)
         throws IOException {
-        if (a.getName().toLowerCase().endsWith(".jar")) {
-            processJarArchive(a, context);
-        } else if (a.getName().toLowerCase().endsWith(".class")) {
-            processClassFile(a, context);
+        if (metrics == null) {
+            scanArchive(a, context);
+        } else {
+            long time = System.nanoTime();
+            scanArchive(a, context);
+            metrics.recordTime(JavaApiAnalyzer.ARCHIVE_SCAN, a.getName(), System.nanoTime() - time);
         }
     }
 
-    private void processJarArchive(Archive a, InitTreeContext context) throws IOException {
+    private void scanArchive(Archive a, InitTreeContext context)
+        throws IOException {
+        ScanQueue queue = new ScanQueue(context);
+        try {
+            if (a.getName().toLowerCase().endsWith(".jar")) {
+                if (a instanceof Archive.FileBacked) {
+                    processJarFile((Archive.FileBacked) a, queue);
+                } else {
+                    processJarArchive(a, queue);
+                }
+            } else if (a.getName().toLowerCase().endsWith(".class")) {
+                processClassFile(a, queue);
+            }
+        } finally {
+            queue.cancel();
+        }
+    }
+
+    private void processJarArchive(Archive a, ScanQueue queue) throws IOException {
         try (ZipInputStream jar = new ZipInputStream(a.openStream())) {
 
             ZipEntry entry = jar.getNextEntry();
 
             while (entry != null) {
-                if (!entry.isDirectory() && entry.getName().toLowerCase().endsWith(".class")) {
-                    processClassBytes(a, jar, context);
+                if (isClassFile(entry)) {
+                    //the stream can only be read sequentially, so the class needs to be read right away
+                    ClassReader classReader = new ClassReader(jar);
+                    queue.add(a, () -> classReader);
                 }
 
                 entry = jar.getNextEntry();
             }
+
+            queue.drain();
         }
     }
 
-    private void processClassFile(Archive a, InitTreeContext context)
+    /**
+     * The entries of jar files can be read in any order and concurrently, so unlike with
+     * {@link #processJarArchive(Archive, ScanQueue)} the reading of the classes is also left to the scanning tasks.
+     */
+    private void processJarFile(Archive.FileBacked a, ScanQueue queue) throws IOException {
+        try (ZipFile jar = new ZipFile(a.getPath().toFile())) {
+            try {
+                Enumeration<? extends ZipEntry> entries = jar.entries();
+
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (isClassFile(entry)) {
+                        queue.add(a, () -> {
+                            try (InputStream data = jar.getInputStream(entry)) {
+                                return new ClassReader(data);
+                            }
+                        });
+                    }
+                }
+
+                queue.drain();
+            } finally {
+                //the jar needs to stay open until none of the classes are being read anymore
+                queue.cancel();
+            }
+        }
+    }
+
+    private void processClassFile(Archive a, ScanQueue queue)
         throws IOException {
         try (InputStream data = a.openStream()) {
-            processClassBytes(a, data, context);
+            ClassReader classReader = new ClassReader(data);
+            queue.add(a, () -> classReader);
+            queue.drain();
         }
     }
 
-    private void processClassBytes(final Archive currentArchive, InputStream data, final InitTreeContext context)
-        throws IOException {
+    private static boolean isClassFile(ZipEntry entry) {
+        return !entry.isDirectory() && entry.getName().toLowerCase().endsWith(".class");
+    }
 
-        ClassReader classReader = new ClassReader(data);
+    private static String toBinaryName(ZipEntry classFileEntry) {
+        String name = classFileEntry.getName();
+        return name.substring(0, name.length() - 6).replace('/', '.');
+    }
+
+    /**
+     * Parses the class and records what it found in a class scan. This doesn't touch the type tree constructor and
+     * therefore can be called concurrently.
+     */
+    private ClassScan scanClass(final Archive currentArchive, ClassReader classReader,
+        final boolean processingSupplementaryArchives) {
+
+        final ClassScan[] scan = new ClassScan[1];
 
         classReader.accept(new ClassVisitor(Opcodes.ASM5) {
 
@@ -185,7 +311,7 @@ final class ClassTreeInitializer {
             private boolean isInnerClass;
             private int visitedInnerClassAccess;
 
-            private TypeTreeConstructor.ClassProcessor classProcessor;
+            private ClassScan classScan;
 
             @Override
             public void visit(int version, int access, String name, String signature, String superName,
@@ -195,10 +321,10 @@ final class ClassTreeInitializer {
                 visitedClassBinaryName = Type.getObjectType(name).getClassName();
 
                 boolean visible = isAccessible(access);
-                boolean isPublicAPI = !context.processingSupplementaryArchives && visible;
+                boolean isPublicAPI = !processingSupplementaryArchives && visible;
 
-                classProcessor = context.typeTreeConstructor
-                    .createApiClassProcessor(currentArchive, visitedClassBinaryName, isPublicAPI);
+                classScan = new ClassScan(currentArchive, visitedClassBinaryName, isPublicAPI);
+                scan[0] = classScan;
 
                 //add the superclass and interface use sites
                 reportUse(Type.getObjectType(superName), UseSite.Type.IS_INHERITED, RawUseSite.SiteType.CLASS, null,
@@ -253,7 +379,7 @@ final class ClassTreeInitializer {
 
                 if (isThisClass || isTransitiveOwnerOfVisitedClass(name)) {
                     //visiting some outer class of the currently processed class
-                    classProcessor.getInnerClassHierarchyConstructor().addName(outerName, innerName);
+                    classScan.addInnerClassName(outerName, innerName);
                 }
             }
 
@@ -321,10 +447,8 @@ final class ClassTreeInitializer {
             public void visitEnd() {
                 if (LOG.isTraceEnabled()) {
                     LOG.trace("Visited {}, isInner={}, onlyAdditional={}",
-                        visitedClassInternalName, isInnerClass, context.processingSupplementaryArchives);
+                        visitedClassInternalName, isInnerClass, processingSupplementaryArchives);
                 }
-
-                classProcessor.commitClass();
             }
 
             private void reportUse(Type t, UseSite.Type useType, RawUseSite.SiteType siteType, String siteName,
@@ -344,7 +468,7 @@ final class ClassTreeInitializer {
 
                 switch (t.getSort()) {
                 case Type.OBJECT:
-                    classProcessor.addUse(binaryName, useSite);
+                    classScan.addUse(binaryName, useSite);
                     break;
                 case Type.ARRAY:
                     String desc = t.getDescriptor();
@@ -387,6 +511,8 @@ final class ClassTreeInitializer {
                 }
             }
         }, ClassReader.SKIP_CODE);
+
+        return scan[0];
     }
 
     private static boolean isAccessible (int access) {
@@ -394,6 +520,384 @@ final class ClassTreeInitializer {
             ((access & Opcodes.ACC_PUBLIC) != 0 || (access & Opcodes.ACC_PROTECTED) != 0);
     }
 
+    /**
+     * Replays the class scans into the type tree constructor in the order the classes were added. If there is an
+     * executor, the classes are parsed concurrently, with a bounded number of them in flight so that we don't need
+     * to hold the whole archive in memory.
+     */
+    private final class ScanQueue {
+        private static final int MAX_PENDING_SCANS = 256;
+
+        private final InitTreeContext context;
+        private final Deque<FutureTask<ClassScan>> pending = new ArrayDeque<>();
+        private volatile boolean cancelled;
+
+        private ScanQueue(InitTreeContext context) {
+            this.context = context;
+        }
+
+        void add(Archive archive, ClassSource source) throws IOException {
+            boolean processingSupplementaryArchives = context.processingSupplementaryArchives;
+
+            if (scanExecutor == null) {
+                scanClass(archive, source.read(), processingSupplementaryArchives)
+                    .replay(context.typeTreeConstructor);
+                return;
+            }
+
+            FutureTask<ClassScan> task = new FutureTask<>(() -> {
+                if (cancelled) {
+                    throw new CancellationException();
+                }
+
+                return scanClass(archive, source.read(), processingSupplementaryArchives);
+            });
+
+            try {
+                scanExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("Executor rejected the parsing of a class from " + archive.getName() +
+                    ". It will be parsed in the initializing thread.", e);
+            }
+
+            pending.add(task);
+
+            if (pending.size() > MAX_PENDING_SCANS) {
+                replay(pending.poll());
+            }
+        }
+
+        void drain() throws IOException {
+            while (!pending.isEmpty()) {
+                replay(pending.poll());
+            }
+        }
+
+        /**
+         * Abandons the classes not replayed yet. This waits for the tasks already reading the classes to finish, so
+         * that the archive can be closed once this returns.
+         */
+        void cancel() {
+            cancelled = true;
+
+            boolean interrupted = false;
+            for (FutureTask<ClassScan> task : pending) {
+                //finishes the tasks the executor hasn't started yet right away, doesn't do anything with the others
+                task.run();
+
+                while (true) {
+                    try {
+                        task.get();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException | CancellationException e) {
+                        break;
+                    }
+                }
+            }
+
+            pending.clear();
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void replay(FutureTask<ClassScan> task) throws IOException {
+            //run the task ourselves if the executor hasn't started it yet
+            task.run();
+
+            ClassScan scan;
+            try {
+                scan = task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the class files to be parsed.", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                } else {
+                    throw new IllegalStateException("Failed to parse a class file.", cause);
+                }
+            }
+
+            scan.replay(context.typeTreeConstructor);
+        }
+    }
+
+    /**
+     * The supplementary archives are usually much larger than the part of them the API actually uses, so instead of
+     * scanning all their classes like with the primary archives, only the names of their classes are indexed upfront
+     * (which for jar files only requires reading their central directory). Then only the classes that are part of the
+     * API but haven't been seen yet are looked up and scanned. Because the scanned classes can drag further classes
+     * into the API, this repeats until no more of such classes can be found in the archives.
+     */
+    private final class SupplementaryArchives implements Closeable {
+        private final InitTreeContext context;
+        private final List<IndexedArchive> archives = new ArrayList<>();
+        private final Map<String, ClassLocation> classes = new HashMap<>();
+        private final Set<String> scannedClasses = new HashSet<>();
+
+        private SupplementaryArchives(InitTreeContext context) {
+            this.context = context;
+        }
+
+        void index(Archive a) throws IOException {
+            IndexedArchive indexed;
+
+            String name = a.getName().toLowerCase();
+            if (name.endsWith(".jar")) {
+                indexed = a instanceof Archive.FileBacked ? new IndexedJarFile((Archive.FileBacked) a)
+                    : new IndexedJarArchive(a);
+            } else if (name.endsWith(".class")) {
+                indexed = new IndexedClassFile(a);
+            } else {
+                return;
+            }
+
+            int archiveIndex = archives.size();
+            archives.add(indexed);
+
+            List<String> classNames = indexed.classBinaryNames;
+            for (int i = 0; i < classNames.size(); ++i) {
+                //the first archive containing the class wins, as it would on a classpath
+                classes.putIfAbsent(classNames.get(i), new ClassLocation(archiveIndex, i));
+            }
+        }
+
+        void scanUsedClasses() throws IOException {
+            List<ClassLocation> toScan = new ArrayList<>();
+
+            while (true) {
+                for (String className : context.typeTreeConstructor.getUnknownApiTypeBinaryNames()) {
+                    ClassLocation location = classes.get(className);
+                    if (location != null && scannedClasses.add(className)) {
+                        toScan.add(location);
+                    }
+                }
+
+                if (toScan.isEmpty()) {
+                    return;
+                }
+
+                //scan the classes in the order they appear in the archives
+                Collections.sort(toScan);
+
+                int start = 0;
+                while (start < toScan.size()) {
+                    int archiveIndex = toScan.get(start).archiveIndex;
+                    int end = start + 1;
+                    while (end < toScan.size() && toScan.get(end).archiveIndex == archiveIndex) {
+                        end++;
+                    }
+
+                    scan(archives.get(archiveIndex), toScan.subList(start, end));
+
+                    start = end;
+                }
+
+                toScan.clear();
+            }
+        }
+
+        private void scan(IndexedArchive archive, List<ClassLocation> classes) throws IOException {
+            long time = metrics == null ? 0 : System.nanoTime();
+
+            LOG.trace("Processing {} classes from archive {}", classes.size(), archive.archive.getName());
+
+            ScanQueue queue = new ScanQueue(context);
+            try {
+                archive.scan(classes, queue);
+                queue.drain();
+            } finally {
+                queue.cancel();
+            }
+
+            if (metrics != null) {
+                metrics.recordTime(JavaApiAnalyzer.ARCHIVE_SCAN, archive.archive.getName(), System.nanoTime() - time);
+                metrics.recordCount(JavaApiAnalyzer.SUPPLEMENTARY_CLASSES, archive.archive.getName(), classes.size());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (IndexedArchive a : archives) {
+                try {
+                    a.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private static final class ClassLocation implements Comparable<ClassLocation> {
+        final int archiveIndex;
+        final int classIndex;
+
+        ClassLocation(int archiveIndex, int classIndex) {
+            this.archiveIndex = archiveIndex;
+            this.classIndex = classIndex;
+        }
+
+        @Override
+        public int compareTo(ClassLocation o) {
+            int ret = Integer.compare(archiveIndex, o.archiveIndex);
+            return ret != 0 ? ret : Integer.compare(classIndex, o.classIndex);
+        }
+    }
+
+    /**
+     * An archive with the list of the classes it contains. The classes are identified by their position in that list.
+     */
+    private abstract static class IndexedArchive implements Closeable {
+        final Archive archive;
+        final List<String> classBinaryNames = new ArrayList<>();
+
+        IndexedArchive(Archive archive) {
+            this.archive = archive;
+        }
+
+        /**
+         * Adds the classes at the provided locations to the queue.
+         *
+         * @param classes the locations of the classes in this archive, sorted by their index
+         * @param queue the queue to scan the classes with
+         */
+        abstract void scan(List<ClassLocation> classes, ScanQueue queue) throws IOException;
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    /**
+     * Reads just the central directory of the jar file when indexing and then reads the individual classes directly.
+     * The file is kept open until the supplementary archives are processed.
+     */
+    private static final class IndexedJarFile extends IndexedArchive {
+        private final ZipFile jar;
+        private final List<ZipEntry> entries = new ArrayList<>();
+
+        IndexedJarFile(Archive.FileBacked archive) throws IOException {
+            super(archive);
+            jar = new ZipFile(archive.getPath().toFile());
+
+            Enumeration<? extends ZipEntry> jarEntries = jar.entries();
+            while (jarEntries.hasMoreElements()) {
+                ZipEntry entry = jarEntries.nextElement();
+                if (isClassFile(entry)) {
+                    entries.add(entry);
+                    classBinaryNames.add(toBinaryName(entry));
+                }
+            }
+        }
+
+        @Override
+        void scan(List<ClassLocation> classes, ScanQueue queue) throws IOException {
+            for (ClassLocation c : classes) {
+                ZipEntry entry = entries.get(c.classIndex);
+                queue.add(archive, () -> {
+                    try (InputStream data = jar.getInputStream(entry)) {
+                        return new ClassReader(data);
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            jar.close();
+        }
+    }
+
+    /**
+     * Jar archives that are not backed by a file can only be read sequentially, so they are read whole when indexed
+     * and then once more each time classes need to be scanned from them. Only the requested classes are parsed
+     * though.
+     */
+    private static final class IndexedJarArchive extends IndexedArchive {
+        IndexedJarArchive(Archive archive) throws IOException {
+            super(archive);
+
+            try (ZipInputStream jar = new ZipInputStream(archive.openStream())) {
+                ZipEntry entry = jar.getNextEntry();
+                while (entry != null) {
+                    if (isClassFile(entry)) {
+                        classBinaryNames.add(toBinaryName(entry));
+                    }
+
+                    entry = jar.getNextEntry();
+                }
+            }
+        }
+
+        @Override
+        void scan(List<ClassLocation> classes, ScanQueue queue) throws IOException {
+            Iterator<ClassLocation> it = classes.iterator();
+            int nextClassIndex = it.next().classIndex;
+            int classIndex = 0;
+
+            try (ZipInputStream jar = new ZipInputStream(archive.openStream())) {
+                ZipEntry entry = jar.getNextEntry();
+                while (entry != null) {
+                    if (isClassFile(entry)) {
+                        if (classIndex++ == nextClassIndex) {
+                            ClassReader classReader = new ClassReader(jar);
+                            queue.add(archive, () -> classReader);
+
+                            if (!it.hasNext()) {
+                                break;
+                            }
+
+                            nextClassIndex = it.next().classIndex;
+                        }
+                    }
+
+                    entry = jar.getNextEntry();
+                }
+            }
+        }
+    }
+
+    private static final class IndexedClassFile extends IndexedArchive {
+        private final ClassReader classReader;
+
+        IndexedClassFile(Archive archive) throws IOException {
+            super(archive);
+
+            try (InputStream data = archive.openStream()) {
+                classReader = new ClassReader(data);
+            }
+
+            classBinaryNames.add(Type.getObjectType(classReader.getClassName()).getClassName());
+        }
+
+        @Override
+        void scan(List<ClassLocation> classes, ScanQueue queue) throws IOException {
+            queue.add(archive, () -> classReader);
+        }
+    }
+
+    private interface ClassSource {
+        ClassReader read() throws IOException;
+    }
+
     private static class InitTreeContext {
         boolean processingSupplementaryArchives;
         final TypeTreeConstructor typeTreeConstructor;
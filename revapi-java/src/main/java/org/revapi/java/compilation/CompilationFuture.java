@@ -47,27 +47,13 @@ public final class CompilationFuture implements Future<Void> {
 
     @Override
     public boolean isDone() {
-        return valve.getCompilationResult().isDone() ||
-            valve.getEnvironment().getCompilationProgressLatch().getCount() == 0;
+        return valve.getCompilationResult().isDone();
     }
 
     @Override
     public Void get() throws InterruptedException, ExecutionException {
-        valve.getEnvironment().getCompilationProgressLatch().await();
-
-        if (valve.getCompilationResult().isDone()) {
-            //if at this point the compilation is done, we know there was a problem.
-            //The compilation should NOT be done at this moment, because it should be waiting for the releasing of the
-            //compilation environment...
-            valve.getCompilationResult().get();
-            return null;
-        }
-
-        if (output.getBuffer().length() > 0) {
-            throw new ExecutionException(
-                new Exception("Compilation failed while analyzing " + valve.getEnvironment().getApi() + ":\n" +
-                    output.toString()));
-        }
+        valve.getCompilationResult().get();
+        checkOutput();
         return null;
     }
 
@@ -75,24 +61,16 @@ public final class CompilationFuture implements Future<Void> {
     public Void get(long timeout, TimeUnit unit)
         throws InterruptedException, ExecutionException, TimeoutException {
 
-        if (!valve.getEnvironment().getCompilationProgressLatch().await(timeout, unit)) {
-            throw new TimeoutException();
-        }
-
-        if (valve.getCompilationResult().isDone()) {
-            //if at this point the compilation is done, we know there was a problem.
-            //The compilation should NOT be done at this moment, because it should be waiting for the releasing of the
-            //compilation environment...
-            valve.getCompilationResult().get();
-            return null;
-        }
+        valve.getCompilationResult().get(timeout, unit);
+        checkOutput();
+        return null;
+    }
 
+    private void checkOutput() throws ExecutionException {
         if (output.getBuffer().length() > 0) {
             throw new ExecutionException(
                 new Exception("Compilation failed while analyzing " + valve.getEnvironment().getApi() + ":\n" +
                     output.toString()));
         }
-
-        return null;
     }
 }
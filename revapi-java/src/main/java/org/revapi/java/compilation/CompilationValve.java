@@ -16,16 +16,12 @@
 
 package org.revapi.java.compilation;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
-import java.nio.file.FileVisitor;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
+import javax.tools.JavaFileManager;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,13 +33,14 @@ public final class CompilationValve {
     private static final Logger LOG = LoggerFactory.getLogger(CompilationValve.class);
 
     private final Future<Boolean> compilationResult;
-    private final File dirToCleanup;
     private final ProbingEnvironment environment;
+    private final JavaFileManager fileManager;
 
-    /* package private */ CompilationValve(Future<Boolean> results, File dirToCleanup, ProbingEnvironment env) {
+    /* package private */ CompilationValve(Future<Boolean> results, ProbingEnvironment env,
+        JavaFileManager fileManager) {
         this.compilationResult = results;
-        this.dirToCleanup = dirToCleanup;
         this.environment = env;
+        this.fileManager = fileManager;
     }
 
     ProbingEnvironment getEnvironment() {
@@ -59,49 +56,21 @@ public final class CompilationValve {
         if (LOG.isTraceEnabled()) {
             LOG.trace("Releasing compilation environment for " + environment.getApi());
         }
-        environment.getCompilationTeardownLatch().countDown();
 
-        if (!compilationResult.isDone()) {
-            try {
-                compilationResult.get();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                //but clean up below anyway before returning
-            } catch (ExecutionException e) {
-                throw new IllegalStateException("Exception thrown while waiting for compilation to end for clean up",
-                    e);
-            }
+        try {
+            compilationResult.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            //but clean up below anyway before returning
+        } catch (ExecutionException e) {
+            //the failure has already been reported through the compilation future, so just log it and clean up
+            LOG.debug("Compilation of " + environment.getApi() + " failed.", e.getCause());
         }
 
         try {
-            Files.walkFileTree(dirToCleanup.toPath(), new FileVisitor<Path>() {
-                @Override
-                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-                    return FileVisitResult.CONTINUE;
-                }
-
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                    Files.delete(file);
-                    return FileVisitResult.CONTINUE;
-                }
-
-                @Override
-                public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
-                    if (dirToCleanup.toPath().equals(file)) {
-                        return FileVisitResult.CONTINUE;
-                    }
-                    throw new IOException("Failed to delete file '" + file + "'.", exc);
-                }
-
-                @Override
-                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
-                    Files.delete(dir);
-                    return FileVisitResult.CONTINUE;
-                }
-            });
+            fileManager.close();
         } catch (IOException e) {
-            throw new IllegalStateException("Failed to remove compiled results", e);
+            LOG.warn("Failed to close the file manager of the compilation of " + environment.getApi(), e);
         }
     }
 }
@@ -17,45 +17,44 @@
 package org.revapi.java.compilation;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
 import java.io.Writer;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
+import javax.annotation.Nullable;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
 import javax.tools.JavaCompiler;
-import javax.tools.JavaFileObject;
 import javax.tools.ToolProvider;
 
+import org.revapi.AnalysisMetrics;
 import org.revapi.Archive;
 import org.revapi.java.AnalysisConfiguration;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.revapi.java.JavaApiAnalyzer;
 
 /**
  * @author Lukas Krejci
  * @since 0.1
  */
 public final class Compiler {
-    private static final Logger LOG = LoggerFactory.getLogger(Compiler.class);
-
     private final JavaCompiler compiler;
     private final Writer output;
     private final Iterable<? extends Archive> classPath;
     private final Iterable<? extends Archive> additionalClassPath;
     private final ExecutorService executor;
+    private final AnalysisMetrics metrics;
+    private final Executor scanExecutor;
 
     public Compiler(ExecutorService executor, Writer reportingOutput, Iterable<? extends Archive> classPath,
-        Iterable<? extends Archive> additionalClassPath) {
+        Iterable<? extends Archive> additionalClassPath, @Nullable AnalysisMetrics metrics,
+        @Nullable Executor scanExecutor) {
 
         compiler = ToolProvider.getSystemJavaCompiler();
         if (compiler == null) {
@@ -66,125 +65,99 @@ public final class Compiler {
         this.output = reportingOutput;
         this.classPath = classPath;
         this.additionalClassPath = additionalClassPath;
+        this.metrics = metrics;
+        this.scanExecutor = scanExecutor;
     }
 
     public CompilationValve compile(final ProbingEnvironment environment,
         final AnalysisConfiguration.MissingClassReporting missingClassReporting, final boolean ignoreMissingAnnotations,
-        final Set<File> bootstrapClasspath) throws Exception {
-
-        File targetPath = Files.createTempDirectory("revapi-java").toAbsolutePath().toFile();
-
-        File sourceDir = new File(targetPath, "sources");
-        sourceDir.mkdir();
-
-        File lib = new File(targetPath, "lib");
-        lib.mkdir();
-
-        // make sure the classpath is in the same order as passed in
-        int classPathSize = size(classPath);
-        int nofArchives = classPathSize + size(additionalClassPath);
-
-        int prefixLength = (int) Math.log10(nofArchives) + 1;
-
-        copyArchives(classPath, lib, 0, prefixLength);
-        copyArchives(additionalClassPath, lib, classPathSize, prefixLength);
+        final Set<File> bootstrapClasspath, @Nullable final File cacheDirectory) throws Exception {
 
-        List<String> options = Arrays.asList(
-            "-d", sourceDir.toString(),
-            "-cp", composeClassPath(lib)
-        );
+        //the archives are served to javac directly by the file manager and the model is obtained by analyzing the
+        //probe, so there's no annotation processing to be done
+        List<String> options = Collections.singletonList("-proc:none");
 
-        List<JavaFileObject> sources = Arrays.<JavaFileObject>asList(
-            new MarkerAnnotationObject(),
-            new ArchiveProbeObject()
-        );
+        ArchiveFileManager fileManager = new ArchiveFileManager(
+            compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8), classPath, additionalClassPath);
 
-        final JavaCompiler.CompilationTask task = compiler
-            .getTask(output, null, null, options, Arrays.asList(ArchiveProbeObject.CLASS_NAME),
-                sources);
+        //javac needs at least one source file to work with, even though we're only interested in the classpath
+        final JavaCompiler.CompilationTask task = compiler.getTask(output, fileManager, null, options, null,
+            Collections.singletonList(new ArchiveProbeObject()));
 
-        ProbingAnnotationProcessor processor = new ProbingAnnotationProcessor(environment);
-
-        task.setProcessors(Arrays.asList(processor));
-
-        Future<Boolean> future = processor.submitWithCompilationAwareness(executor, () -> {
+        Future<Boolean> future = executor.submit(() -> {
             new ClassTreeInitializer(environment, missingClassReporting, ignoreMissingAnnotations,
-                bootstrapClasspath).initTree();
-
-            return task.call();
-        });
+                bootstrapClasspath, cacheDirectory, metrics, scanExecutor).initTree();
 
-        return new CompilationValve(future, targetPath, environment);
-    }
+            long time = metrics == null ? 0 : System.nanoTime();
 
-    private String composeClassPath(File classPathDir) {
-        StringBuilder bld = new StringBuilder();
+            JavacTaskMethods javacTask = JavacTaskMethods.of(task);
+            javacTask.analyze(task);
 
-        File[] jars = classPathDir.listFiles();
+            environment.setModel(javacTask.getElements(task), javacTask.getTypes(task));
 
-        if (jars == null || jars.length == 0) {
-            return "";
-        }
-
-        List<File> sortedJars = new ArrayList<>(Arrays.asList(jars));
-        Collections.sort(sortedJars, new Comparator<File>() {
-            @Override
-            public int compare(File o1, File o2) {
-                return o1.getName().compareTo(o2.getName());
+            if (metrics != null) {
+                metrics.recordTime(JavaApiAnalyzer.COMPILATION, null, System.nanoTime() - time);
             }
-        });
-
-        Iterator<File> it = sortedJars.iterator();
 
-        bld.append(it.next().getAbsolutePath());
-        while (it.hasNext()) {
-            bld.append(File.pathSeparator).append(it.next().getAbsolutePath());
-        }
+            return true;
+        });
 
-        return bld.toString();
+        return new CompilationValve(future, environment, fileManager);
     }
 
-    private void copyArchives(Iterable<? extends Archive> archives, File parentDir, int startIdx, int prefixLength) {
-        if (archives == null) {
-            return;
+    /**
+     * Gives access to the {@code com.sun.source.util.JavacTask} methods of the compilation task. We can't just cast to
+     * that class, because on JDK 8 it lives in tools.jar, which is not necessarily on our classpath - the
+     * {@link ToolProvider} can load it in its own class loader.
+     */
+    private static final class JavacTaskMethods {
+        private final Method analyze;
+        private final Method getElements;
+        private final Method getTypes;
+
+        private JavacTaskMethods(Method analyze, Method getElements, Method getTypes) {
+            this.analyze = analyze;
+            this.getElements = getElements;
+            this.getTypes = getTypes;
         }
 
-        for (Archive a : archives) {
-            String name = formatName(startIdx++, prefixLength, a.getName());
-            File f = new File(parentDir, name);
-            if (f.exists()) {
-                LOG.warn(
-                    "File " + f.getAbsolutePath() + " already exists. Assume it already contains the bits we need.");
-                continue;
-            }
-
-            Path target = new File(parentDir, name).toPath();
+        static JavacTaskMethods of(JavaCompiler.CompilationTask task) {
+            try {
+                Class<?> javacTask = Class.forName("com.sun.source.util.JavacTask", false,
+                    task.getClass().getClassLoader());
 
-            try (InputStream data = a.openStream()) {
-                Files.copy(data, target);
-            } catch (IOException e) {
-                throw new IllegalStateException(
-                    "Failed to copy class path element: " + a.getName() + " to " + f.getAbsolutePath(), e);
+                return new JavacTaskMethods(javacTask.getMethod("analyze"), javacTask.getMethod("getElements"),
+                    javacTask.getMethod("getTypes"));
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                throw new IllegalStateException("The system compiler doesn't support the JavacTask API.", e);
             }
         }
-    }
 
-    private int size(Iterable<?> collection) {
-        if (collection == null) {
-            return 0;
+        void analyze(JavaCompiler.CompilationTask task) throws Exception {
+            invoke(analyze, task);
         }
 
-        int ret = 0;
-        Iterator<?> it = collection.iterator();
-        while (it.hasNext()) {
-            ret++;
-            it.next();
+        Elements getElements(JavaCompiler.CompilationTask task) throws Exception {
+            return (Elements) invoke(getElements, task);
         }
 
-        return ret;
-    }
+        Types getTypes(JavaCompiler.CompilationTask task) throws Exception {
+            return (Types) invoke(getTypes, task);
+        }
 
-    private String formatName(int idx, int prefixLength, String rootName) {
-        return String.format("%0" + prefixLength + "d-" + rootName, idx);
+        private static Object invoke(Method method, JavaCompiler.CompilationTask task) throws Exception {
+            try {
+                return method.invoke(task);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                } else {
+                    throw e;
+                }
+            }
+        }
     }
 }
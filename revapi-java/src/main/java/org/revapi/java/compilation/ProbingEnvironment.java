@@ -18,13 +18,12 @@ package org.revapi.java.compilation;
 
 import org.objectweb.asm.Type;
 import org.revapi.API;
+import org.revapi.Archive;
 import org.revapi.java.model.*;
 import org.revapi.java.spi.*;
-import org.revapi.query.Filter;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Name;
 import javax.lang.model.element.TypeElement;
@@ -35,7 +34,6 @@ import javax.lang.model.util.SimpleElementVisitor7;
 import javax.lang.model.util.SimpleTypeVisitor7;
 import javax.lang.model.util.Types;
 import java.util.*;
-import java.util.concurrent.CountDownLatch;
 
 /**
  * @author Lukas Krejci
@@ -43,61 +41,70 @@ import java.util.concurrent.CountDownLatch;
  */
 public final class ProbingEnvironment implements TypeEnvironment {
     private final API api;
-    private volatile ProcessingEnvironment processingEnvironment;
-    private final CountDownLatch compilationProgressLatch = new CountDownLatch(1);
-    private final CountDownLatch compilationEnvironmentTeardownLatch = new CountDownLatch(1);
+    private volatile Elements elements;
+    private volatile Types types;
     private final JavaElementForest tree;
     private final Map<String, Set<RawUseSite>> useSiteMap = new HashMap<>();
     private final HashMap<RawUseSite, UseSite> useSiteCache = new HashMap<>();
 
+    /**
+     * The fields and methods of the types in which the use sites were resolved, keyed by the binary names of the types.
+     * The fields are indexed by their names, the methods by their names followed by their descriptors.
+     */
+    private final Map<String, Map<String, JavaElement>> membersByType = new HashMap<>();
+
+    private final Set<Archive> primaryArchives = new HashSet<>();
+
+    /**
+     * For each type reachable from the primary API, the use of it that lies on the shortest path of uses from the
+     * primary API. Computed on the first request.
+     */
+    private Map<String, RawUseSite> usesOnPathsToApi;
+
     public ProbingEnvironment(API api) {
         this.api = api;
         this.tree = new JavaElementForest(api);
+        for (Archive a : api.getArchives()) {
+            primaryArchives.add(a);
+        }
     }
 
     public API getApi() {
         return api;
     }
 
-    public CountDownLatch getCompilationTeardownLatch() {
-        return compilationEnvironmentTeardownLatch;
-    }
-
-    public CountDownLatch getCompilationProgressLatch() {
-        return compilationProgressLatch;
-    }
-
     public JavaElementForest getTree() {
         return tree;
     }
 
-    public void setProcessingEnvironment(ProcessingEnvironment env) {
-        this.processingEnvironment = env;
+    public void setModel(Elements elements, Types types) {
+        this.types = types;
+        this.elements = elements;
     }
 
-    public boolean hasProcessingEnvironment() {
-        return processingEnvironment != null;
+    public boolean hasModel() {
+        return elements != null;
     }
 
     @Nonnull
     @Override
     public Elements getElementUtils() {
-        if (processingEnvironment == null) {
+        if (elements == null) {
             throw new IllegalStateException("Types instance not yet available. It is too early to call this method." +
                     " Wait until after the archives are visited and the API model constructed.");
         }
-        return new MissingTypeAwareDelegatingElements(processingEnvironment.getElementUtils());
+        return new MissingTypeAwareDelegatingElements(elements);
     }
 
     @Nonnull
     @Override
     @SuppressWarnings("ConstantConditions")
     public Types getTypeUtils() {
-        if (processingEnvironment == null) {
+        if (types == null) {
             throw new IllegalStateException("Types instance not yet available. It is too early to call this method." +
                     " Wait until after the archives are visited and the API model constructed.");
         }
-        return new MissingTypeAwareDelegatingTypes(processingEnvironment.getTypeUtils());
+        return new MissingTypeAwareDelegatingTypes(types);
     }
 
     /**
@@ -122,17 +129,17 @@ public final class ProbingEnvironment implements TypeEnvironment {
             return visitor.end(type, parameter);
         }
 
+        final TypeElement usedType = Util.findTypeByBinaryName(elements, binaryName);
+        if (usedType == null) {
+            return visitor.end(type, parameter);
+        }
+
         R ret = visitRawUseSites(binaryName, sites, new RawUseSiteVisitor<R, P>() {
             @Override
             public R visit(String binaryName, RawUseSite site, P parameter) {
-                TypeElement type = Util.findTypeByBinaryName(elements, binaryName);
-                if (type == null) {
-                    return null;
-                }
-
-                UseSite use = toUseSite(type, site, elements);
+                UseSite use = toUseSite(usedType, site, elements);
 
-                return visitor.visit(type, use, parameter);
+                return visitor.visit(usedType, use, parameter);
             }
         }, parameter);
 
@@ -143,6 +150,158 @@ public final class ProbingEnvironment implements TypeEnvironment {
         return ret;
     }
 
+    /**
+     * Returns the shortest chain of uses through which the provided type is exposed in the primary API. The first use
+     * in the chain is a use of the provided type, each subsequent one is a use of the type containing the site of
+     * the previous use. The site of the last use is in one of the primary archives of the API.
+     *
+     * <p>The chains for all the types are computed at once using a breadth-first search from the types in the primary
+     * archives, so the chain of a type is always the same, no matter how the type was arrived at. Of several equally
+     * short chains, the one whose uses come first in the order of the binary names of the using and used types and
+     * then of the kinds of the uses and their sites is returned.
+     *
+     * @param type the type to find the chain of uses of
+     * @return the chain of uses, an empty list if the type itself is in the primary API or null if the type is not
+     * reachable from the primary API
+     */
+    @Nullable
+    public List<UseSite> getUsesOnPathToApi(@Nonnull TypeElement type) {
+        Elements elements = getElementUtils();
+        Map<String, RawUseSite> usesOnPaths = getUsesOnPathsToApi();
+
+        List<UseSite> ret = new ArrayList<>();
+
+        String binaryName = elements.getBinaryName(type).toString();
+        TypeElement currentType = type;
+        while (!isInPrimaryArchive(binaryName)) {
+            RawUseSite use = usesOnPaths.get(binaryName);
+            if (use == null) {
+                return null;
+            }
+
+            ret.add(toUseSite(currentType, use, elements));
+
+            binaryName = use.getSiteClass();
+            currentType = Util.findTypeByBinaryName(elements, binaryName);
+            if (currentType == null) {
+                return null;
+            }
+        }
+
+        return ret;
+    }
+
+    private Map<String, RawUseSite> getUsesOnPathsToApi() {
+        if (usesOnPathsToApi != null) {
+            return usesOnPathsToApi;
+        }
+
+        //reverse the use site map so that we know what types are used by each class. The classes and their uses are
+        //sorted so that the search, and therefore the shortest paths it finds, don't depend on the order of the hash
+        //maps and sets.
+        Map<String, List<Map.Entry<String, RawUseSite>>> usesByClass = new TreeMap<>();
+        for (Map.Entry<String, Set<RawUseSite>> e : useSiteMap.entrySet()) {
+            for (RawUseSite site : e.getValue()) {
+                List<Map.Entry<String, RawUseSite>> uses = usesByClass.get(site.getSiteClass());
+                if (uses == null) {
+                    uses = new ArrayList<>();
+                    usesByClass.put(site.getSiteClass(), uses);
+                }
+
+                uses.add(new AbstractMap.SimpleImmutableEntry<>(e.getKey(), site));
+            }
+        }
+
+        for (List<Map.Entry<String, RawUseSite>> uses : usesByClass.values()) {
+            Collections.sort(uses, ProbingEnvironment::compareUses);
+        }
+
+        Map<String, RawUseSite> usesOnPaths = new HashMap<>();
+        Set<String> visited = new HashSet<>();
+        Deque<String> queue = new ArrayDeque<>();
+
+        for (String cls : usesByClass.keySet()) {
+            if (isInPrimaryArchive(cls)) {
+                visited.add(cls);
+                queue.add(cls);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            List<Map.Entry<String, RawUseSite>> uses = usesByClass.get(queue.poll());
+            if (uses == null) {
+                continue;
+            }
+
+            for (Map.Entry<String, RawUseSite> use : uses) {
+                if (visited.add(use.getKey())) {
+                    usesOnPaths.put(use.getKey(), use.getValue());
+                    queue.add(use.getKey());
+                }
+            }
+        }
+
+        usesOnPathsToApi = usesOnPaths;
+
+        return usesOnPaths;
+    }
+
+    /**
+     * Orders the uses made by a single class by the used type, then by the kind of the site and the use and then by
+     * the site itself. No two distinct uses are equal in this order.
+     */
+    private static int compareUses(Map.Entry<String, RawUseSite> a, Map.Entry<String, RawUseSite> b) {
+        int ret = a.getKey().compareTo(b.getKey());
+        if (ret != 0) {
+            return ret;
+        }
+
+        RawUseSite as = a.getValue();
+        RawUseSite bs = b.getValue();
+
+        ret = as.getSiteType().compareTo(bs.getSiteType());
+        if (ret != 0) {
+            return ret;
+        }
+
+        ret = as.getUseType().compareTo(bs.getUseType());
+        if (ret != 0) {
+            return ret;
+        }
+
+        ret = compareNullable(as.getSiteClass(), bs.getSiteClass());
+        if (ret != 0) {
+            return ret;
+        }
+
+        ret = compareNullable(as.getSiteName(), bs.getSiteName());
+        if (ret != 0) {
+            return ret;
+        }
+
+        ret = compareNullable(as.getSiteDescriptor(), bs.getSiteDescriptor());
+        if (ret != 0) {
+            return ret;
+        }
+
+        return Integer.compare(as.getSitePosition(), bs.getSitePosition());
+    }
+
+    private static int compareNullable(String a, String b) {
+        if (a == null) {
+            return b == null ? 0 : -1;
+        } else if (b == null) {
+            return 1;
+        } else {
+            return a.compareTo(b);
+        }
+    }
+
+    private boolean isInPrimaryArchive(String binaryName) {
+        JavaTypeElement type = tree.searchByKey(JavaTypeElement.class, binaryName);
+        return type != null && primaryArchives.contains(type.getArchive());
+    }
+
     private <R, P> R visitRawUseSites(String binaryName, Set<RawUseSite> sites, RawUseSiteVisitor<R, P> visitor,
         P parameter) {
 
@@ -162,32 +321,14 @@ public final class ProbingEnvironment implements TypeEnvironment {
             return cachedUseSite;
         }
 
-        List<JavaTypeElement> userTypes = tree.search(JavaTypeElement.class, true, new Filter<JavaTypeElement>() {
-            @Override
-            public boolean applies(@Nullable JavaTypeElement element) {
-                if (element instanceof org.revapi.java.model.TypeElement) {
-                    return ((org.revapi.java.model.TypeElement) element).getBinaryName()
-                        .equals(ru.getSiteClass());
-                } else {
-                    return element != null &&
-                        elements.getBinaryName(element.getModelElement()).contentEquals(ru.getSiteClass());
-                }
-            }
-
-            @Override
-            public boolean shouldDescendInto(@Nullable Object element) {
-                return element instanceof JavaTypeElement;
-            }
-        }, null);
-
-        JavaTypeElement t;
-        if (userTypes.isEmpty()) {
+        //the tree indexes the types by their binary names
+        JavaTypeElement t = tree.searchByKey(JavaTypeElement.class, ru.getSiteClass());
+        if (t == null) {
             t = new MissingClassElement(this, ru.getSiteClass(), ru.getSiteClass());
-        } else {
-            t = userTypes.get(0);
         }
 
         final JavaTypeElement userType = t;
+        final Map<String, JavaElement> members = getMembers(ru.getSiteClass(), userType, elements);
         JavaElement user = null;
 
         MethodElement method;
@@ -199,18 +340,13 @@ public final class ProbingEnvironment implements TypeEnvironment {
                 user = userType;
                 break;
             case FIELD:
-                for (FieldElement f : userType.searchChildren(FieldElement.class, false, null)) {
-                    if (f.getModelElement().getSimpleName().contentEquals(ru.getSiteName())) {
-                        user = f;
-                        break;
-                    }
-                }
+                user = members.get(ru.getSiteName());
                 break;
             case METHOD:
-                user = findMatchingMethod(ru, userType);
+                user = findMatchingMethod(ru, userType, members);
                 break;
             case METHOD_PARAMETER:
-                method = findMatchingMethod(ru, userType);
+                method = findMatchingMethod(ru, userType, members);
                 if (method != null) {
                     List<MethodParameterElement> params = method
                         .searchChildren(MethodParameterElement.class, false, null);
@@ -222,12 +358,7 @@ public final class ProbingEnvironment implements TypeEnvironment {
             }
             break;
         case HAS_TYPE:
-            for (FieldElement f : userType.searchChildren(FieldElement.class, false, null)) {
-                if (f.getModelElement().getSimpleName().contentEquals(ru.getSiteName())) {
-                    user = f;
-                    break;
-                }
-            }
+            user = members.get(ru.getSiteName());
             break;
         case IS_IMPLEMENTED:
             if (hasMatchingType(elements, type, userType.getModelElement().getInterfaces())) {
@@ -242,7 +373,7 @@ public final class ProbingEnvironment implements TypeEnvironment {
             }
             break;
         case IS_THROWN:
-            method = findMatchingMethod(ru, userType);
+            method = findMatchingMethod(ru, userType, members);
             if (method != null) {
                 if (hasMatchingType(elements, type, method.getModelElement().getThrownTypes())) {
                     user = method;
@@ -251,7 +382,7 @@ public final class ProbingEnvironment implements TypeEnvironment {
 
             break;
         case PARAMETER_TYPE:
-            method = findMatchingMethod(ru, userType);
+            method = findMatchingMethod(ru, userType, members);
             if (method != null) {
                 List<MethodParameterElement> params = method
                     .searchChildren(MethodParameterElement.class, false, null);
@@ -267,7 +398,7 @@ public final class ProbingEnvironment implements TypeEnvironment {
             }
             break;
         case RETURN_TYPE:
-            method = findMatchingMethod(ru, userType);
+            method = findMatchingMethod(ru, userType, members);
             if (method != null) {
                 if (hasMatchingType(elements, type,
                     Collections.singleton(method.getModelElement().getReturnType()))) {
@@ -293,13 +424,106 @@ public final class ProbingEnvironment implements TypeEnvironment {
         return useSite;
     }
 
-    private MethodElement findMatchingMethod(RawUseSite methodUseSite,
-        JavaTypeElement containingType) {
+    private MethodElement findMatchingMethod(RawUseSite methodUseSite, JavaTypeElement containingType,
+        Map<String, JavaElement> members) {
+
+        JavaElement method = members.get(methodUseSite.getSiteName() + methodUseSite.getSiteDescriptor());
+        if (method instanceof MethodElement) {
+            return (MethodElement) method;
+        }
 
+        //we couldn't compute the descriptor of some of the methods, so let's compare the types one by one
         return findMatchingMethod(methodUseSite,
             containingType.searchChildren(MethodElement.class, false, null));
     }
 
+    private Map<String, JavaElement> getMembers(String binaryName, JavaTypeElement type, Elements elements) {
+        Map<String, JavaElement> members = membersByType.get(binaryName);
+        if (members != null) {
+            return members;
+        }
+
+        members = new HashMap<>();
+
+        //the first member with given name or signature wins, as it would when looking for it among the children
+        for (org.revapi.Element e : type.getChildren()) {
+            if (e instanceof FieldElement) {
+                FieldElement field = (FieldElement) e;
+                members.putIfAbsent(field.getModelElement().getSimpleName().toString(), field);
+            } else if (e instanceof MethodElement) {
+                MethodElement method = (MethodElement) e;
+                String descriptor = getDescriptor(method.getModelElement(), elements);
+                if (descriptor != null) {
+                    members.putIfAbsent(method.getModelElement().getSimpleName() + descriptor, method);
+                }
+            }
+        }
+
+        membersByType.put(binaryName, members);
+
+        return members;
+    }
+
+    /**
+     * Returns the JVM descriptor of the method, as found in the class files, or null if it cannot be determined.
+     */
+    @Nullable
+    private String getDescriptor(ExecutableElement method, Elements elements) {
+        StringBuilder bld = new StringBuilder("(");
+        for (VariableElement p : method.getParameters()) {
+            if (!appendDescriptor(bld, p.asType(), elements)) {
+                return null;
+            }
+        }
+        bld.append(")");
+
+        return appendDescriptor(bld, method.getReturnType(), elements) ? bld.toString() : null;
+    }
+
+    private boolean appendDescriptor(StringBuilder bld, TypeMirror type, Elements elements) {
+        switch (type.getKind()) {
+        case BOOLEAN:
+            bld.append('Z');
+            return true;
+        case BYTE:
+            bld.append('B');
+            return true;
+        case CHAR:
+            bld.append('C');
+            return true;
+        case DOUBLE:
+            bld.append('D');
+            return true;
+        case FLOAT:
+            bld.append('F');
+            return true;
+        case INT:
+            bld.append('I');
+            return true;
+        case LONG:
+            bld.append('J');
+            return true;
+        case SHORT:
+            bld.append('S');
+            return true;
+        case VOID:
+            bld.append('V');
+            return true;
+        case ARRAY:
+            bld.append('[');
+            return appendDescriptor(bld, ((ArrayType) type).getComponentType(), elements);
+        case DECLARED:
+        case ERROR:
+            TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+            bld.append('L').append(elements.getBinaryName(typeElement).toString().replace('.', '/')).append(';');
+            return true;
+        case TYPEVAR:
+            return appendDescriptor(bld, getTypeUtils().erasure(type), elements);
+        default:
+            return false;
+        }
+    }
+
     private MethodElement findMatchingMethod(RawUseSite methodUseSite, List<MethodElement> candidates) {
         Type[] parameterTypes = Type.getArgumentTypes(methodUseSite.getSiteDescriptor());
         Type returnType = Type.getReturnType(methodUseSite.getSiteDescriptor());
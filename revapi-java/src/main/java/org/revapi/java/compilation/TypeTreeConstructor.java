@@ -17,20 +17,18 @@
 package org.revapi.java.compilation;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumSet;
-import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
+
+import javax.annotation.Nullable;
 
 import org.revapi.Archive;
 import org.revapi.java.model.TypeElement;
@@ -53,11 +51,13 @@ final class TypeTreeConstructor {
     private final Map<String, TypeRecord> typesByBinaryName = new HashMap<>();
     private final ProbingEnvironment environment;
     private final Set<File> bootstrapClasspath;
-    private Set<String> bootstrapClasses;
+    private final File cacheDirectory;
+    private BootstrapClassIndex bootstrapClasses;
 
-    TypeTreeConstructor(ProbingEnvironment environment, Set<File> bootstrapClasspath) {
+    TypeTreeConstructor(ProbingEnvironment environment, Set<File> bootstrapClasspath, @Nullable File cacheDirectory) {
         this.environment = environment;
         this.bootstrapClasspath = bootstrapClasspath;
+        this.cacheDirectory = cacheDirectory;
     }
 
     public ClassProcessor createApiClassProcessor(Archive classArchive, String classBinaryName, boolean apiType) {
@@ -68,6 +68,20 @@ final class TypeTreeConstructor {
         return !unseenClassesBinaryNames.isEmpty();
     }
 
+    /**
+     * @return the binary names of the classes that are part of the API but haven't been processed yet
+     */
+    public List<String> getUnknownApiTypeBinaryNames() {
+        List<String> ret = new ArrayList<>();
+        for (String binaryName : unseenClassesBinaryNames) {
+            if (typesByBinaryName.get(binaryName).isApiType()) {
+                ret.add(binaryName);
+            }
+        }
+
+        return ret;
+    }
+
     public Results construct() {
         Comparator<TypeRecord> nestingComparator = new Comparator<TypeRecord>() {
             @Override
@@ -163,41 +177,14 @@ final class TypeTreeConstructor {
             long time = 0;
 
             if (LOG.isTraceEnabled()) {
-                LOG.trace("Building bootstrap classes cache");
+                LOG.trace("Loading bootstrap classes index");
                 time = System.currentTimeMillis();
             }
 
-            bootstrapClasses = new HashSet<>();
-            for (File f : bootstrapClasspath) {
-                ZipFile jar = null;
-                try {
-                    jar = new ZipFile(f);
-                    Enumeration<? extends ZipEntry> entries = jar.entries();
-                    while (entries.hasMoreElements()) {
-                        ZipEntry entry = entries.nextElement();
-                        String name = entry.getName();
-                        if (name.endsWith(".class")) {
-                            name = name.substring(0, name.length() - 6).replace('/', '.');
-                            bootstrapClasses.add(name);
-                        }
-                    }
-                    jar.close();
-                } catch (IOException e) {
-                    LOG.error("Failed to analyze bootstrap class path entry at " + f.getAbsolutePath(), e);
-                } finally {
-                    try {
-                        if (jar != null) {
-                            jar.close();
-                        }
-                    } catch (IOException e) {
-                        LOG.warn("Failed to close bootstrap classpath entry (" + f.getAbsolutePath() + ").", e);
-                    }
-                }
-            }
-
+            bootstrapClasses = BootstrapClassIndex.of(bootstrapClasspath, cacheDirectory);
 
             if (LOG.isTraceEnabled()) {
-                LOG.trace("Bootstrap classpath cache built in " + (System.currentTimeMillis() - time) +
+                LOG.trace("Bootstrap classes index loaded in " + (System.currentTimeMillis() - time) +
                     "ms containing " + bootstrapClasses.size() + " entries.");
             }
         }
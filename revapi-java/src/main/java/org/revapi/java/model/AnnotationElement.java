@@ -83,7 +83,7 @@ public final class AnnotationElement extends SimpleElement implements JavaAnnota
         return getComparableSignature();
     }
 
-    private String getComparableSignature() {
+    String getComparableSignature() {
         if (comparableSignature == null) {
             comparableSignature = "@" + Util.toHumanReadableString(annotation.getAnnotationType());
         }
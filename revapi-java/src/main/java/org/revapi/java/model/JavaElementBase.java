@@ -43,6 +43,8 @@ abstract class JavaElementBase<T extends Element> extends SimpleElement implemen
     private boolean initializedChildren;
     private final Archive archive;
     private String comparableSignature;
+    private String identity;
+    private String fullHumanReadableString;
 
     public JavaElementBase(ProbingEnvironment env, Archive archive, T element) {
         this.environment = env;
@@ -113,6 +115,9 @@ abstract class JavaElementBase<T extends Element> extends SimpleElement implemen
             }
 
             initializedChildren = true;
+
+            //the children are complete now and can't change anymore
+            environment.getTree().freezeChildrenOf(this);
         }
 
         return (SortedSet<JavaElement>) super.getChildren();
@@ -121,12 +126,58 @@ abstract class JavaElementBase<T extends Element> extends SimpleElement implemen
     @Nonnull
     @Override
     public String getFullHumanReadableString() {
+        String ret = fullHumanReadableString;
+        if (ret == null) {
+            ret = createFullHumanReadableString();
+
+            //the model element can still be missing while the forest is being probed. The string is only a placeholder
+            //until the model is available, so we can't cache it yet.
+            if (getModelElement() != null) {
+                fullHumanReadableString = ret;
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * The full human readable string is computed only once the model element is available and cached afterwards.
+     *
+     * @return the full human readable representation of this element
+     */
+    @Nonnull
+    protected String createFullHumanReadableString() {
         return getHumanReadableElementType() + " " + Util.toHumanReadableString(getModelElement());
     }
 
+    /**
+     * @return the identity of this element used by {@link #hashCode()} and {@link #equals(Object)}
+     */
+    @Nonnull
+    protected final String getIdentity() {
+        String ret = identity;
+        if (ret == null) {
+            ret = createIdentity();
+            identity = ret;
+        }
+
+        return ret;
+    }
+
+    /**
+     * By default, the identity of the element is its full human readable string. The elements that can exist without
+     * the model element need to override this so that their identity doesn't change once the model is available.
+     *
+     * @return the identity of this element
+     */
+    @Nonnull
+    protected String createIdentity() {
+        return getFullHumanReadableString();
+    }
+
     @Override
     public int hashCode() {
-        return getFullHumanReadableString().hashCode();
+        return getIdentity().hashCode();
     }
 
     @Override
@@ -135,8 +186,15 @@ abstract class JavaElementBase<T extends Element> extends SimpleElement implemen
             return true;
         }
 
-        return obj != null && obj instanceof JavaElementBase &&
-            getFullHumanReadableString().equals(((JavaElementBase<?>) obj).getFullHumanReadableString());
+        if (!(obj instanceof JavaElementBase)) {
+            return false;
+        }
+
+        String myIdentity = getIdentity();
+        String otherIdentity = ((JavaElementBase<?>) obj).getIdentity();
+
+        //the hash codes are cached by the strings, so this is a cheap way to tell most of the different elements apart
+        return myIdentity.hashCode() == otherIdentity.hashCode() && myIdentity.equals(otherIdentity);
     }
 
     @Override
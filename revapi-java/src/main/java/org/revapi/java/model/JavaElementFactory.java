@@ -16,6 +16,7 @@
 
 package org.revapi.java.model;
 
+import javax.annotation.Nullable;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.VariableElement;
@@ -52,6 +53,34 @@ public final class JavaElementFactory {
         //TODO I could see use for PackageElement, because packages can have annotations on them
     }
 
+    /**
+     * Two elements have equal correspondence keys if and only if they are equal according to the correspondence
+     * comparator of the java difference analyzer, i.e. they are of the same type and the same according to their
+     * natural order, except for methods, which correspond if they are declared in the same type and have the same name.
+     *
+     * @param element the element to return the key of
+     * @return the correspondence key of the element or null if the element is not a java element
+     */
+    @Nullable
+    public static Object getCorrespondenceKey(org.revapi.Element element) {
+        if (element instanceof TypeElement) {
+            return new CorrespondenceKey(element.getClass(), ((TypeElement) element).getBinaryName(), 0);
+        } else if (element instanceof MethodElement) {
+            return new CorrespondenceKey(MethodElement.class, ((MethodElement) element).getCorrespondenceSignature(),
+                0);
+        } else if (element instanceof MethodParameterElement) {
+            MethodParameterElement p = (MethodParameterElement) element;
+            return new CorrespondenceKey(MethodParameterElement.class, p.getComparableSignature(), p.getIndex());
+        } else if (element instanceof FieldElement) {
+            return new CorrespondenceKey(FieldElement.class, ((FieldElement) element).getComparableSignature(), 0);
+        } else if (element instanceof AnnotationElement) {
+            return new CorrespondenceKey(AnnotationElement.class,
+                ((AnnotationElement) element).getComparableSignature(), 0);
+        } else {
+            return null;
+        }
+    }
+
     public static int compareByType(org.revapi.Element a, org.revapi.Element b) {
         int ar = a == null ? -1 : getModelTypeRank(a.getClass());
         int br = b == null ? -1 : getModelTypeRank(b.getClass());
@@ -75,4 +104,36 @@ public final class JavaElementFactory {
             return -1;
         }
     }
+
+    private static final class CorrespondenceKey {
+        private final Class<?> elementType;
+        private final String signature;
+        private final int index;
+
+        CorrespondenceKey(Class<?> elementType, String signature, int index) {
+            this.elementType = elementType;
+            this.signature = signature;
+            this.index = index;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof CorrespondenceKey)) {
+                return false;
+            }
+
+            CorrespondenceKey other = (CorrespondenceKey) o;
+
+            return elementType == other.elementType && index == other.index && signature.equals(other.signature);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * elementType.hashCode() + signature.hashCode()) + index;
+        }
+    }
 }
@@ -26,6 +26,7 @@ import javax.annotation.Nullable;
 
 import org.revapi.API;
 import org.revapi.Element;
+import org.revapi.java.spi.JavaElement;
 import org.revapi.query.Filter;
 import org.revapi.simple.SimpleElementForest;
 
@@ -70,6 +71,75 @@ public final class JavaElementForest extends SimpleElementForest {
         }
     }
 
+    /**
+     * Only freezes the set of the roots. The java elements initialize their children lazily and freeze them as soon
+     * as they are initialized (see {@link #freezeChildrenOf(JavaElementBase)}).
+     */
+    @Override
+    public void freeze() {
+        freezeRoots();
+    }
+
+    /**
+     * Lays out the freshly initialized children of the element in the storage shared by the whole forest.
+     */
+    void freezeChildrenOf(JavaElementBase<?> element) {
+        freezeChildren(element);
+    }
+
+    /**
+     * The java types are indexed by their binary names.
+     */
+    @Nullable
+    @Override
+    protected String getIndexKey(@Nonnull Element element) {
+        return element instanceof TypeElement ? ((TypeElement) element).getBinaryName() : null;
+    }
+
+    /**
+     * Only the roots are indexed so that the lookups don't need to initialize the members of all the types. The nested
+     * types are looked up through their enclosing types instead (see {@link #searchByKey(Class, String)}).
+     */
+    @Override
+    protected boolean shouldIndexChildrenOf(@Nonnull Element element) {
+        return false;
+    }
+
+    /**
+     * Looks up the type with the provided binary name. The nested types that are not roots of the forest are found
+     * among the children of their enclosing types, so only the children of those need to be initialized.
+     */
+    @Nullable
+    @Override
+    public <T extends Element> T searchByKey(@Nonnull Class<T> resultType, @Nonnull String key) {
+        Element ret = super.searchByKey(Element.class, key);
+        if (ret == null) {
+            ret = searchNestedType(key);
+        }
+
+        return resultType.isInstance(ret) ? resultType.cast(ret) : null;
+    }
+
+    @Nullable
+    private TypeElement searchNestedType(String binaryName) {
+        //'$' can be part of the simple names, too, so try all the possible enclosing types from the innermost one
+        int dollar = binaryName.lastIndexOf('$');
+        while (dollar > 0) {
+            TypeElement enclosing = searchByKey(TypeElement.class, binaryName.substring(0, dollar));
+            if (enclosing != null) {
+                for (JavaElement c : enclosing.getChildren()) {
+                    if (c instanceof TypeElement && binaryName.equals(((TypeElement) c).getBinaryName())) {
+                        return (TypeElement) c;
+                    }
+                }
+            }
+
+            dollar = binaryName.lastIndexOf('$', dollar - 1);
+        }
+
+        return null;
+    }
+
     @Override
     public <T extends Element> void search(@Nonnull List<T> results, @Nonnull Class<T> resultType,
         @Nonnull SortedSet<? extends Element> currentLevel, boolean recurse, @Nullable Filter<? super T> filter) {
@@ -34,8 +34,13 @@ import org.revapi.java.spi.Util;
  */
 public final class MethodElement extends JavaElementBase<ExecutableElement> implements JavaMethodElement {
 
+    private final String name;
+    private String erasedSignature;
+    private String correspondenceSignature;
+
     public MethodElement(ProbingEnvironment env, Archive archive, ExecutableElement element) {
         super(env, archive, element);
+        name = element.getSimpleName().toString();
     }
 
     @Nonnull
@@ -44,10 +49,60 @@ public final class MethodElement extends JavaElementBase<ExecutableElement> impl
         return "method";
     }
 
+    /**
+     * The methods are ordered by their names first and only then by the rest of their signatures, so that this order
+     * refines the order of the {@link #getCorrespondenceSignature() correspondence signatures}. Otherwise the
+     * overloads of a method could be ordered around a method the name of which starts with the name of the overloads
+     * (e.g. {@code get(int)}, {@code get2()}, {@code get(long)}) and the corresponding methods couldn't be paired up by
+     * walking the methods of the old and new API in order.
+     */
+    @Override
+    public int compareTo(Element o) {
+        if (!(o instanceof MethodElement)) {
+            return super.compareTo(o);
+        }
+
+        MethodElement other = (MethodElement) o;
+
+        int ret = name.compareTo(other.name);
+        if (ret != 0) {
+            return ret;
+        }
+
+        return getErasedSignature().compareTo(other.getErasedSignature());
+    }
+
+    /**
+     * The methods of the old and new API correspond to each other if they are declared in the same type and have the
+     * same name, regardless of their return and parameter types.
+     *
+     * @return the canonical name of the declaring type and the name of the method
+     */
+    @Nonnull
+    @SuppressWarnings("ConstantConditions")
+    public String getCorrespondenceSignature() {
+        if (correspondenceSignature == null) {
+            correspondenceSignature = ((TypeElement) getParent()).getCanonicalName() + "::" + name;
+        }
+
+        return correspondenceSignature;
+    }
+
     @Override
     protected String createComparableSignature() {
-        return getModelElement().getSimpleName() + ":" +
-            Util.toUniqueString(getTypeEnvironment().getTypeUtils().erasure(getModelElement().asType()));
+        return name + ":" + getErasedSignature();
+    }
+
+    /**
+     * @return the unique string of the erasure of the method type
+     */
+    private String getErasedSignature() {
+        if (erasedSignature == null) {
+            erasedSignature =
+                Util.toUniqueString(getTypeEnvironment().getTypeUtils().erasure(getModelElement().asType()));
+        }
+
+        return erasedSignature;
     }
 
     @Nonnull
@@ -46,6 +46,10 @@ public final class MethodParameterElement extends JavaElementBase<VariableElemen
         }
     }
 
+    int getIndex() {
+        return index;
+    }
+
     @Nonnull
     @Override
     protected String getHumanReadableElementType() {
@@ -80,6 +84,10 @@ public final class MethodParameterElement extends JavaElementBase<VariableElemen
 
         MethodParameterElement other = (MethodParameterElement) obj;
 
+        if (index != other.index) {
+            return false;
+        }
+
         ExecutableElement myMethodElement = (ExecutableElement) getModelElement().getEnclosingElement();
         ExecutableElement otherMethodElement = (ExecutableElement) other.getModelElement().getEnclosingElement();
 
@@ -87,14 +95,8 @@ public final class MethodParameterElement extends JavaElementBase<VariableElemen
             return false;
         }
 
-        String myType = Util.toUniqueString(myMethodElement.getEnclosingElement().asType());
-        String myMethod = myMethodElement.getSimpleName().toString();
-
-        String otherType = Util.toUniqueString(otherMethodElement.getEnclosingElement().asType());
-        String otherMethod = otherMethodElement.getSimpleName().toString();
-
-
-        return myType.equals(otherType) && myMethod.equals(otherMethod) && index == other.index;
+        //the comparable signature consists of the declaring type and the method name
+        return getComparableSignature().equals(other.getComparableSignature());
     }
 
     @Override
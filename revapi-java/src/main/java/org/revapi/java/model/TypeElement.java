@@ -86,7 +86,7 @@ public class TypeElement extends JavaElementBase<javax.lang.model.element.TypeEl
         //even though environment.getElementUtils() is marked @Nonnull, we do the check here, because
         //it actually IS null for a while during initialization of the forest during compilation.
         //we do this so that toString() works even under those conditions.
-        if (element == null && environment.hasProcessingEnvironment()) {
+        if (element == null && environment.hasModel()) {
             element = environment.getElementUtils().getTypeElement(canonicalName);
         }
         return element;
@@ -106,21 +106,27 @@ public class TypeElement extends JavaElementBase<javax.lang.model.element.TypeEl
             return JavaElementFactory.compareByType(this, o);
         }
 
-        return binaryName.compareTo(((TypeElement) o).binaryName);
+        return getComparableSignature().compareTo(((TypeElement) o).getComparableSignature());
     }
 
     @Nonnull
     @Override
     @SuppressWarnings("ConstantConditions")
-    public String getFullHumanReadableString() {
+    protected String createFullHumanReadableString() {
         javax.lang.model.element.TypeElement el = getModelElement();
         //see getModelElement() for why we do the null check here even if getModelElement() is @Nonnull
         return getHumanReadableElementType() + " " + (el == null ? canonicalName : Util.toHumanReadableString(el));
     }
 
+    @Nonnull
+    @Override
+    protected String createIdentity() {
+        //the binary name is known even while the model element is not available yet
+        return getHumanReadableElementType() + " " + binaryName;
+    }
+
     @Override
     protected String createComparableSignature() {
-        //this isn't used, because compareTo is implemented differently
-        return null;
+        return binaryName;
     }
 }
@@ -19,19 +19,34 @@ package org.revapi.java;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.revapi.API;
 import org.revapi.Archive;
+import org.revapi.java.compilation.ProbingEnvironment;
 import org.revapi.java.model.JavaElementForest;
 import org.revapi.java.model.TypeElement;
+import org.revapi.java.spi.UseSite;
 
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.exporter.ZipExporter;
@@ -121,4 +136,208 @@ public class JavaArchiveAnalyzerTest extends AbstractJavaElementAnalyzerTest {
             deleteDir(compRes.compilationPath);
         }
     }
+
+    @Test
+    public void testSupplementaryTypesReachableOnlyThroughNonApiTypesIgnored() throws Exception {
+        ArchiveAndCompilationPath compRes = createCompiledJar("a.jar", "misc/supplementary/Api.java",
+            "misc/supplementary/Used.java", "misc/supplementary/Base.java", "misc/supplementary/Deep.java",
+            "misc/supplementary/Hidden.java", "misc/supplementary/Unreachable.java");
+
+        JavaArchive api = ShrinkWrap.create(JavaArchive.class, "api.jar")
+            .addAsResource(compRes.compilationPath.resolve("Api.class").toFile(), "Api.class");
+
+        //Unreachable is only used by Hidden, which is not part of the API, so it is neither scanned nor missing
+        JavaArchive sup = ShrinkWrap.create(JavaArchive.class, "sup.jar")
+            .addAsResource(compRes.compilationPath.resolve("Used.class").toFile(), "Used.class")
+            .addAsResource(compRes.compilationPath.resolve("Base.class").toFile(), "Base.class")
+            .addAsResource(compRes.compilationPath.resolve("Deep.class").toFile(), "Deep.class")
+            .addAsResource(compRes.compilationPath.resolve("Hidden.class").toFile(), "Hidden.class");
+
+        try {
+            JavaArchiveAnalyzer analyzer = new JavaArchiveAnalyzer(new API(Arrays.asList(new ShrinkwrapArchive(api)),
+                Arrays.asList(new ShrinkwrapArchive(sup))), Executors.newSingleThreadExecutor(),
+                AnalysisConfiguration.MissingClassReporting.ERROR, false, Collections.<File>emptySet());
+
+            JavaElementForest forest = analyzer.analyze();
+
+            List<String> roots = new ArrayList<>();
+            for (TypeElement t : forest.getRoots()) {
+                roots.add(t.getCanonicalName());
+            }
+
+            //Deep is dragged into the API through Base only once Base becomes part of the API as the superclass of Used
+            Assert.assertEquals(Arrays.asList("Api", "Base", "Deep", "Used"), roots);
+
+            analyzer.close();
+        } finally {
+            deleteDir(compRes.compilationPath);
+        }
+    }
+
+    @Test
+    public void testUsesOnPathToApi() throws Exception {
+        ArchiveAndCompilationPath compRes = createCompiledJar("a.jar", "misc/paths/Api.java", "misc/paths/A.java",
+            "misc/paths/B.java", "misc/paths/Leaf.java", "misc/paths/Hidden.java");
+
+        JavaArchive api = ShrinkWrap.create(JavaArchive.class, "api.jar")
+            .addAsResource(compRes.compilationPath.resolve("Api.class").toFile(), "Api.class");
+
+        JavaArchive sup = ShrinkWrap.create(JavaArchive.class, "sup.jar")
+            .addAsResource(compRes.compilationPath.resolve("A.class").toFile(), "A.class")
+            .addAsResource(compRes.compilationPath.resolve("B.class").toFile(), "B.class")
+            .addAsResource(compRes.compilationPath.resolve("Leaf.class").toFile(), "Leaf.class")
+            .addAsResource(compRes.compilationPath.resolve("Hidden.class").toFile(), "Hidden.class");
+
+        try {
+            JavaArchiveAnalyzer analyzer = new JavaArchiveAnalyzer(new API(Arrays.asList(new ShrinkwrapArchive(api)),
+                Arrays.asList(new ShrinkwrapArchive(sup))), Executors.newSingleThreadExecutor(), null, false,
+                Collections.<File>emptySet());
+
+            analyzer.analyze().getRoots();
+
+            ProbingEnvironment env = analyzer.getProbingEnvironment();
+
+            Assert.assertEquals(Collections.emptyList(), describeUsesOnPathToApi(env, "Api"));
+            Assert.assertEquals(Collections.singletonList("RETURN_TYPE method B Api::b()"),
+                describeUsesOnPathToApi(env, "B"));
+            Assert.assertEquals(Arrays.asList("HAS_TYPE field A.leaf", "RETURN_TYPE method A Api::a()"),
+                describeUsesOnPathToApi(env, "Leaf"));
+
+            //Hidden uses Leaf but nothing in the API uses Hidden
+            Assert.assertNull(describeUsesOnPathToApi(env, "Hidden"));
+
+            analyzer.close();
+        } finally {
+            deleteDir(compRes.compilationPath);
+        }
+    }
+
+    @Test
+    public void testUseSitesResolvedToMembers() throws Exception {
+        ArchiveAndCompilationPath archive = createCompiledJar("members.jar", "misc/members/Members.java",
+            "misc/members/Base.java", "misc/members/Used.java");
+
+        try {
+            JavaArchiveAnalyzer analyzer = new JavaArchiveAnalyzer(new API(
+                Arrays.asList(new ShrinkwrapArchive(archive.archive)), null), Executors.newSingleThreadExecutor(),
+                null, false, Collections.<File>emptySet());
+
+            analyzer.analyze().getRoots();
+
+            ProbingEnvironment env = analyzer.getProbingEnvironment();
+
+            Set<String> uses = new TreeSet<>();
+            env.visitUseSites(env.getElementUtils().getTypeElement("Used"), new UseSite.Visitor<Void, Void>() {
+                @Nullable
+                @Override
+                public Void visit(@Nonnull javax.lang.model.element.TypeElement type, @Nonnull UseSite use,
+                    @Nullable Void parameter) {
+                    uses.add(use.getUseType() + " " + use.getSite().getFullHumanReadableString());
+                    return null;
+                }
+
+                @Nullable
+                @Override
+                public Void end(javax.lang.model.element.TypeElement type, @Nullable Void parameter) {
+                    return null;
+                }
+            }, null);
+
+            //the bridge methods are not part of the model and the overload not using the type is not a use site
+            Assert.assertEquals(new TreeSet<>(Arrays.asList(
+                "HAS_TYPE field Members.used",
+                "RETURN_TYPE method Used Members::used()",
+                "PARAMETER_TYPE method void Members::take(Used)",
+                "PARAMETER_TYPE method void Members::take(Used, int)",
+                "PARAMETER_TYPE method <T extends Used> void Members::generic(T)",
+                "PARAMETER_TYPE method int Members::compareTo(Used)",
+                "RETURN_TYPE method Used Members::get()")), uses);
+
+            analyzer.close();
+        } finally {
+            deleteDir(archive.compilationPath);
+        }
+    }
+
+    @Test
+    public void testParallelScanEquivalentToSerialScan() throws Exception {
+        //more classes than the scans that can be pending at once, so that the replay also kicks in during the scanning
+        int classCount = 600;
+
+        Path compilationPath = Files.createTempDirectory("parallel-scan-test-");
+        List<JavaFileObject> sources = new ArrayList<>();
+        for (int i = 0; i < classCount; ++i) {
+            String superClass = i == 0 ? "Object" : "C" + (i / 2);
+            String next = "C" + ((i + 1) % classCount);
+            String source = "package scan;\n"
+                + "public class C" + i + " extends " + superClass + " {\n"
+                + "    public " + next + " field;\n"
+                + "    public java.util.List<" + next + "> method" + i + "(C" + (i / 3) + " param) throws Exception {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "    public static class Inner {\n"
+                + "        public C" + i + " get() { return null; }\n"
+                + "    }\n"
+                + "}\n";
+
+            sources.add(new SimpleJavaFileObject(URI.create("string:///scan/C" + i + ".java"),
+                JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return source;
+                }
+            });
+        }
+
+        ExecutorService scanExecutor = Executors.newFixedThreadPool(4);
+        try {
+            List<String> options = Arrays.asList("-d", compilationPath.toString());
+            Assert.assertTrue(ToolProvider.getSystemJavaCompiler().getTask(null, null, null, options, null, sources)
+                .call());
+
+            JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "scan.jar");
+            try (Stream<Path> classes = Files.walk(compilationPath)) {
+                classes.filter(f -> f.toString().endsWith(".class")).forEach(f -> archive.addAsResource(f.toFile(),
+                    compilationPath.relativize(f).toString().replace(File.separatorChar, '/')));
+            }
+
+            JavaArchiveAnalyzer serial = JavaArchiveAnalyzer.builder(
+                new API(Arrays.asList(new ShrinkwrapArchive(archive)), null), Executors.newSingleThreadExecutor())
+                .build();
+            JavaArchiveAnalyzer parallel = JavaArchiveAnalyzer.builder(
+                new API(Arrays.asList(new ShrinkwrapArchive(archive)), null), Executors.newSingleThreadExecutor())
+                .withScanExecutor(scanExecutor).build();
+
+            try {
+                JavaElementForest serialForest = serial.analyze();
+                JavaElementForest parallelForest = parallel.analyze();
+
+                Assert.assertEquals(classCount, serialForest.getRoots().size());
+                Assert.assertEquals(serialForest.toString(), parallelForest.toString());
+                Assert.assertFalse(serial.getProbingEnvironment().getUseSiteMap().isEmpty());
+                Assert.assertEquals(serial.getProbingEnvironment().getUseSiteMap(),
+                    parallel.getProbingEnvironment().getUseSiteMap());
+            } finally {
+                serial.close();
+                parallel.close();
+            }
+        } finally {
+            scanExecutor.shutdown();
+            deleteDir(compilationPath);
+        }
+    }
+
+    private static List<String> describeUsesOnPathToApi(ProbingEnvironment env, String typeName) {
+        List<UseSite> uses = env.getUsesOnPathToApi(env.getElementUtils().getTypeElement(typeName));
+        if (uses == null) {
+            return null;
+        }
+
+        List<String> ret = new ArrayList<>();
+        for (UseSite use : uses) {
+            ret.add(use.getUseType() + " " + use.getSite().getFullHumanReadableString());
+        }
+
+        return ret;
+    }
 }
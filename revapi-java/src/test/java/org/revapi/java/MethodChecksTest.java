@@ -49,6 +49,16 @@ public class MethodChecksTest extends AbstractJavaElementAnalyzerTest {
         Assert.assertEquals(4, (int) reporter.getProblemCounters().get(Code.METHOD_REMOVED.code()));
     }
 
+    @Test
+    public void testOverloadsCorrespondAcrossSimilarlyNamedMethods() throws Exception {
+        ProblemOccurrenceReporter reporter = new ProblemOccurrenceReporter();
+        runAnalysis(reporter, "v1/methods/Overloads.java", "v2/methods/Overloads.java");
+
+        //get2() is removed both from the small class and from the one with enough members to use the hash join
+        Assert.assertEquals(2, (int) reporter.getProblemCounters().get(Code.METHOD_REMOVED.code()));
+        Assert.assertEquals(1, reporter.getProblemCounters().size());
+    }
+
     @Test
     public void testDefaultValueChangedCheck() throws Exception {
         ProblemOccurrenceReporter reporter = new ProblemOccurrenceReporter();
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.java.compilation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.annotation.Nonnull;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.revapi.Archive;
+
+/**
+ * @author agent
+ * @since 0.4
+ */
+public class ArchiveFileManagerTest {
+
+    @Test
+    public void testFirstArchiveWins() throws Exception {
+        Archive first = new BytesArchive("first.jar", jar("a/A", "a/B"));
+        Archive second = new BytesArchive("second.jar", jar("a/A", "a/C"));
+
+        try (ArchiveFileManager fm = newFileManager(Collections.singletonList(first),
+            Collections.singletonList(second))) {
+
+            List<String> names = new ArrayList<>();
+            for (JavaFileObject f : fm.list(StandardLocation.CLASS_PATH, "a", EnumSet.of(JavaFileObject.Kind.CLASS),
+                false)) {
+                names.add(fm.inferBinaryName(StandardLocation.CLASS_PATH, f) + "@" + f.getName());
+            }
+
+            Assert.assertEquals(Arrays.asList("a.A@first.jar(a/A.class)", "a.B@first.jar(a/B.class)",
+                "a.C@second.jar(a/C.class)"), names);
+        }
+    }
+
+    @Test
+    public void testFileBackedArchivesServed() throws Exception {
+        Path jar = Files.createTempFile("archive-file-manager", ".jar");
+        try {
+            Files.write(jar, jar("a/A", "a/A$Inner", "a/b/B"));
+
+            Archive archive = new FileArchive(jar);
+
+            try (ArchiveFileManager fm = newFileManager(Collections.singletonList(archive), null)) {
+                List<String> names = new ArrayList<>();
+                for (JavaFileObject f : fm.list(StandardLocation.CLASS_PATH, "a",
+                    EnumSet.of(JavaFileObject.Kind.CLASS), true)) {
+
+                    names.add(fm.inferBinaryName(StandardLocation.CLASS_PATH, f));
+
+                    try (InputStream in = f.openInputStream()) {
+                        Assert.assertEquals(0xCA, in.read());
+                    }
+                }
+
+                Collections.sort(names);
+                Assert.assertEquals(Arrays.asList("a.A", "a.A$Inner", "a.b.B"), names);
+
+                Assert.assertFalse(fm.list(StandardLocation.CLASS_PATH, "a", EnumSet.of(JavaFileObject.Kind.SOURCE),
+                    false).iterator().hasNext());
+                Assert.assertFalse(fm.list(StandardLocation.CLASS_PATH, "java.lang",
+                    EnumSet.of(JavaFileObject.Kind.CLASS), false).iterator().hasNext());
+            }
+        } finally {
+            Files.delete(jar);
+        }
+    }
+
+    private static ArchiveFileManager newFileManager(Iterable<? extends Archive> classPath,
+        Iterable<? extends Archive> additionalClassPath) throws IOException {
+        return new ArchiveFileManager(ToolProvider.getSystemJavaCompiler().getStandardFileManager(null, null, null),
+            classPath, additionalClassPath);
+    }
+
+    private static byte[] jar(String... internalClassNames) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(data)) {
+            for (String name : internalClassNames) {
+                ClassWriter writer = new ClassWriter(0);
+                writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+                writer.visitEnd();
+
+                out.putNextEntry(new ZipEntry(name + ".class"));
+                out.write(writer.toByteArray());
+                out.closeEntry();
+            }
+        }
+
+        return data.toByteArray();
+    }
+
+    private static final class BytesArchive implements Archive {
+        private final String name;
+        private final byte[] data;
+
+        BytesArchive(String name, byte[] data) {
+            this.name = name;
+            this.data = data;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nonnull
+        @Override
+        public InputStream openStream() throws IOException {
+            return new ByteArrayInputStream(data);
+        }
+    }
+
+    private static final class FileArchive implements Archive.FileBacked {
+        private final Path path;
+
+        FileArchive(Path path) {
+            this.path = path;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return path.getFileName().toString();
+        }
+
+        @Nonnull
+        @Override
+        public InputStream openStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Nonnull
+        @Override
+        public Path getPath() {
+            return path;
+        }
+    }
+}
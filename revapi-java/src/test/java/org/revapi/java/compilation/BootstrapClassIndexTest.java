@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.java.compilation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since 0.4
+ */
+public class BootstrapClassIndexTest {
+
+    @Test
+    public void testIndexesClassesOfJar() throws Exception {
+        File dir = Files.createTempDirectory("bootstrap-class-index").toFile();
+        try {
+            File jar = createJar(new File(dir, "boot.jar"), "a/A.class", "a/A$Inner.class", "a/b/B.class",
+                "META-INF/MANIFEST.MF");
+
+            BootstrapClassIndex index = BootstrapClassIndex.of(Collections.singleton(jar), null);
+
+            Assert.assertEquals(3, index.size());
+            Assert.assertTrue(index.contains("a.A"));
+            Assert.assertTrue(index.contains("a.A$Inner"));
+            Assert.assertTrue(index.contains("a.b.B"));
+            Assert.assertFalse(index.contains("a.B"));
+            Assert.assertFalse(index.contains("META-INF.MANIFEST"));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testReindexesChangedJar() throws Exception {
+        File dir = Files.createTempDirectory("bootstrap-class-index").toFile();
+        try {
+            File jar = createJar(new File(dir, "boot.jar"), "a/A.class");
+            Assert.assertTrue(BootstrapClassIndex.of(Collections.singleton(jar), null).contains("a.A"));
+
+            createJar(jar, "a/A.class", "a/AnotherClass.class");
+            Assert.assertTrue(jar.setLastModified(jar.lastModified() + 2000));
+
+            BootstrapClassIndex index = BootstrapClassIndex.of(Collections.singleton(jar), null);
+            Assert.assertEquals(2, index.size());
+            Assert.assertTrue(index.contains("a.AnotherClass"));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testIndexPersistedInCacheDirectory() throws Exception {
+        File dir = Files.createTempDirectory("bootstrap-class-index").toFile();
+        try {
+            File cache = new File(dir, "cache");
+            File jar = createJar(new File(dir, "boot.jar"), "a/A.class", "a/AB.class", "a/b/B.class", "c/C.class");
+
+            BootstrapClassIndex.of(Collections.singleton(jar), cache);
+            BootstrapClassIndex.clearInMemoryCache();
+
+            //garble the jar keeping its size and timestamp so that the index can only come from the cache directory
+            long lastModified = jar.lastModified();
+            Files.write(jar.toPath(), new byte[(int) jar.length()]);
+            Assert.assertTrue(jar.setLastModified(lastModified));
+
+            BootstrapClassIndex index = BootstrapClassIndex.of(Collections.singleton(jar), cache);
+            Assert.assertEquals(4, index.size());
+            Assert.assertTrue(index.contains("a.A"));
+            Assert.assertTrue(index.contains("a.AB"));
+            Assert.assertTrue(index.contains("a.b.B"));
+            Assert.assertTrue(index.contains("c.C"));
+
+            //once the jar changes, the persisted index is no longer used
+            BootstrapClassIndex.clearInMemoryCache();
+            Assert.assertTrue(jar.setLastModified(lastModified + 2000));
+            Assert.assertEquals(0, BootstrapClassIndex.of(Collections.singleton(jar), cache).size());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static File createJar(File file, String... entries) throws IOException {
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            for (String e : entries) {
+                out.putNextEntry(new ZipEntry(e));
+                out.write(1);
+                out.closeEntry();
+            }
+        }
+
+        return file;
+    }
+
+    private static void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File c : children) {
+                delete(c);
+            }
+        }
+
+        f.delete();
+    }
+}
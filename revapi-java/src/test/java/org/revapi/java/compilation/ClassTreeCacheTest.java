@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.java.compilation;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.revapi.API;
+import org.revapi.Archive;
+import org.revapi.java.model.TypeElement;
+import org.revapi.java.spi.UseSite;
+
+/**
+ * @author agent
+ * @since 0.4
+ */
+public class ClassTreeCacheTest {
+
+    @Test
+    public void testTreeRestoredFromCache() throws Exception {
+        File dir = Files.createTempDirectory("class-tree-cache").toFile();
+        try {
+            Archive api = new BytesArchive("api.jar", "api");
+            Archive supplementary = new BytesArchive("sup.jar", "sup");
+
+            ProbingEnvironment env = new ProbingEnvironment(API.of(api).supportedBy(supplementary).build());
+            RawUseSite use = new RawUseSite(UseSite.Type.RETURN_TYPE, RawUseSite.SiteType.METHOD, "a.A", "m",
+                "()Lb/B;");
+            RawUseSite param = new RawUseSite(UseSite.Type.PARAMETER_TYPE, RawUseSite.SiteType.METHOD_PARAMETER,
+                "a.A$I", "n", "(Lb/B;)V", 0);
+
+            env.getTree().getRootsUnsafe().add(new TypeElement(env, api, "a.A", "a.A"));
+            env.getTree().getRootsUnsafe().add(new TypeElement(env, supplementary, "b.B", "b.B"));
+            env.getUseSiteMap().put("b.B", new HashSet<>(Arrays.asList(use, param)));
+
+            ClassTreeCache.of(env.getApi(), Collections.emptySet(), false, dir)
+                .store(env, Collections.singletonList("c.Missing"));
+
+            //the same contents in different archive instances
+            Archive api2 = new BytesArchive("api-copy.jar", "api");
+            Archive supplementary2 = new BytesArchive("sup-copy.jar", "sup");
+            ProbingEnvironment env2 = new ProbingEnvironment(API.of(api2).supportedBy(supplementary2).build());
+
+            List<String> unknownTypes = ClassTreeCache.of(env2.getApi(), Collections.emptySet(), false, dir)
+                .load(env2);
+
+            Assert.assertEquals(Collections.singletonList("c.Missing"), unknownTypes);
+
+            Set<TypeElement> roots = env2.getTree().getRootsUnsafe();
+            Assert.assertEquals(2, roots.size());
+
+            Iterator<TypeElement> it = roots.iterator();
+            TypeElement a = it.next();
+            TypeElement b = it.next();
+            Assert.assertEquals("a.A", a.getBinaryName());
+            Assert.assertEquals("b.B", b.getBinaryName());
+            Assert.assertSame(api2, a.getArchive());
+            Assert.assertSame(supplementary2, b.getArchive());
+
+            Assert.assertEquals(env.getUseSiteMap(), env2.getUseSiteMap());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testChangedArchivesNotLoaded() throws Exception {
+        File dir = Files.createTempDirectory("class-tree-cache").toFile();
+        try {
+            Archive api = new BytesArchive("api.jar", "v1");
+            ProbingEnvironment env = new ProbingEnvironment(API.of(api).build());
+            env.getTree().getRootsUnsafe().add(new TypeElement(env, api, "a.A", "a.A"));
+
+            ClassTreeCache.of(env.getApi(), Collections.emptySet(), false, dir)
+                .store(env, Collections.emptyList());
+
+            ProbingEnvironment changed = new ProbingEnvironment(API.of(new BytesArchive("api.jar", "v2")).build());
+            Assert.assertNull(ClassTreeCache.of(changed.getApi(), Collections.emptySet(), false, dir).load(changed));
+
+            ProbingEnvironment other = new ProbingEnvironment(API.of(new BytesArchive("api.jar", "v1")).build());
+            Assert.assertNull(ClassTreeCache.of(other.getApi(), Collections.emptySet(), true, dir).load(other));
+
+            ProbingEnvironment same = new ProbingEnvironment(API.of(new BytesArchive("api.jar", "v1")).build());
+            Assert.assertNotNull(ClassTreeCache.of(same.getApi(), Collections.emptySet(), false, dir).load(same));
+            Assert.assertTrue(changed.getTree().getRootsUnsafe().isEmpty());
+            Assert.assertEquals(1, same.getTree().getRootsUnsafe().size());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testCorruptedCacheIgnored() throws Exception {
+        File dir = Files.createTempDirectory("class-tree-cache").toFile();
+        try {
+            Archive api = new BytesArchive("api.jar", "api");
+            ProbingEnvironment env = new ProbingEnvironment(API.of(api).build());
+            env.getTree().getRootsUnsafe().add(new TypeElement(env, api, "a.A", "a.A"));
+
+            ClassTreeCache.of(env.getApi(), Collections.emptySet(), false, dir).store(env, Collections.emptyList());
+
+            File[] files = dir.listFiles();
+            Assert.assertNotNull(files);
+            Assert.assertEquals(1, files.length);
+            Files.write(files[0].toPath(), new byte[]{1, 2, 3});
+
+            ProbingEnvironment env2 = new ProbingEnvironment(API.of(api).build());
+            Assert.assertNull(ClassTreeCache.of(env2.getApi(), Collections.emptySet(), false, dir).load(env2));
+            Assert.assertTrue(env2.getTree().getRootsUnsafe().isEmpty());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testFileBackedSupplementaryArchivesNotRead() throws Exception {
+        File dir = Files.createTempDirectory("class-tree-cache").toFile();
+        try {
+            File jar = new File(dir, "dep.jar");
+            Files.write(jar.toPath(), "dep".getBytes(StandardCharsets.UTF_8));
+
+            Archive api = new BytesArchive("api.jar", "api");
+            ProbingEnvironment env = new ProbingEnvironment(API.of(api).supportedBy(new FileArchive(jar, false))
+                .build());
+            env.getTree().getRootsUnsafe().add(new TypeElement(env, api, "a.A", "a.A"));
+
+            ClassTreeCache.of(env.getApi(), Collections.emptySet(), false, dir).store(env, Collections.emptyList());
+
+            ProbingEnvironment same = new ProbingEnvironment(API.of(new BytesArchive("api.jar", "api"))
+                .supportedBy(new FileArchive(jar, false)).build());
+            Assert.assertNotNull(ClassTreeCache.of(same.getApi(), Collections.emptySet(), false, dir).load(same));
+            Assert.assertEquals(1, same.getTree().getRootsUnsafe().size());
+
+            Assert.assertTrue(jar.setLastModified(jar.lastModified() - 10000));
+
+            ProbingEnvironment touched = new ProbingEnvironment(API.of(new BytesArchive("api.jar", "api"))
+                .supportedBy(new FileArchive(jar, false)).build());
+            Assert.assertNull(ClassTreeCache.of(touched.getApi(), Collections.emptySet(), false, dir).load(touched));
+
+            //the same contents as the file, but not backed by it
+            ProbingEnvironment stream = new ProbingEnvironment(API.of(new BytesArchive("api.jar", "api"))
+                .supportedBy(new BytesArchive("dep.jar", "dep")).build());
+            Assert.assertNull(ClassTreeCache.of(stream.getApi(), Collections.emptySet(), false, dir).load(stream));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testRebuiltPrimaryArchivesLoadedByContents() throws Exception {
+        File dir = Files.createTempDirectory("class-tree-cache").toFile();
+        try {
+            File jar = new File(dir, "api.jar");
+            Files.write(jar.toPath(), "api".getBytes(StandardCharsets.UTF_8));
+
+            Archive api = new FileArchive(jar, true);
+            ProbingEnvironment env = new ProbingEnvironment(API.of(api).build());
+            env.getTree().getRootsUnsafe().add(new TypeElement(env, api, "a.A", "a.A"));
+
+            ClassTreeCache.of(env.getApi(), Collections.emptySet(), false, dir).store(env, Collections.emptyList());
+
+            //rebuilt with the same contents
+            Assert.assertTrue(jar.setLastModified(jar.lastModified() - 10000));
+
+            ProbingEnvironment rebuilt = new ProbingEnvironment(API.of(new FileArchive(jar, true)).build());
+            Assert.assertNotNull(ClassTreeCache.of(rebuilt.getApi(), Collections.emptySet(), false, dir)
+                .load(rebuilt));
+            Assert.assertEquals(1, rebuilt.getTree().getRootsUnsafe().size());
+
+            Files.write(jar.toPath(), "API".getBytes(StandardCharsets.UTF_8));
+
+            ProbingEnvironment changed = new ProbingEnvironment(API.of(new FileArchive(jar, true)).build());
+            Assert.assertNull(ClassTreeCache.of(changed.getApi(), Collections.emptySet(), false, dir).load(changed));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File c : children) {
+                delete(c);
+            }
+        }
+
+        f.delete();
+    }
+
+    private static final class BytesArchive implements Archive {
+        private final String name;
+        private final byte[] data;
+
+        BytesArchive(String name, String data) {
+            this.name = name;
+            this.data = data.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nonnull
+        @Override
+        public InputStream openStream() throws IOException {
+            return new ByteArrayInputStream(data);
+        }
+    }
+
+    private static final class FileArchive implements Archive.FileBacked {
+        private final File file;
+        private final boolean readable;
+
+        FileArchive(File file, boolean readable) {
+            this.file = file;
+            this.readable = readable;
+        }
+
+        @Nonnull
+        @Override
+        public Path getPath() {
+            return file.toPath();
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return file.getName();
+        }
+
+        @Nonnull
+        @Override
+        public InputStream openStream() throws IOException {
+            if (!readable) {
+                throw new AssertionError("The contents of the file backed supplementary archives should not be read.");
+            }
+
+            return Files.newInputStream(file.toPath());
+        }
+    }
+}
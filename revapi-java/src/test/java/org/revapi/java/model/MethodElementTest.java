@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi.java.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnull;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.util.Types;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.revapi.API;
+import org.revapi.Archive;
+import org.revapi.Element;
+import org.revapi.java.JavaArchiveAnalyzer;
+import org.revapi.java.spi.Util;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+
+/**
+ * @author agent
+ * @since 0.4
+ */
+public class MethodElementTest {
+
+    @Test
+    public void testComparableSignatureIsUniqueStringOfErasure() throws Exception {
+        Path compilationPath = Files.createTempDirectory("method-element-test-");
+        ExecutorService compilationExecutor = Executors.newSingleThreadExecutor();
+        try {
+            JavaArchive archive = compile(compilationPath, "misc/signatures/Signatures.java");
+
+            JavaArchiveAnalyzer analyzer = new JavaArchiveAnalyzer(new API(
+                Collections.singletonList(new ShrinkwrapArchive(archive)), null), compilationExecutor, null, false,
+                Collections.<File>emptySet());
+
+            try {
+                JavaElementForest forest = analyzer.analyze();
+
+                List<MethodElement> methods = new ArrayList<>();
+                collectMethods(forest.getRoots(), methods);
+
+                //the constructors and the methods of Signatures, Inner, Innermost and Nested
+                Assert.assertEquals(16, methods.size());
+
+                for (MethodElement m : methods) {
+                    ExecutableElement method = m.getModelElement();
+                    Types types = m.getTypeEnvironment().getTypeUtils();
+
+                    String expected =
+                        method.getSimpleName() + ":" + Util.toUniqueString(types.erasure(method.asType()));
+
+                    Assert.assertEquals(expected, m.getComparableSignature());
+                }
+            } finally {
+                analyzer.close();
+            }
+        } finally {
+            compilationExecutor.shutdown();
+            delete(compilationPath.toFile());
+        }
+    }
+
+    private static void collectMethods(Iterable<? extends Element> elements, List<MethodElement> methods) {
+        for (Element e : elements) {
+            if (e instanceof MethodElement) {
+                methods.add((MethodElement) e);
+            }
+
+            collectMethods(e.getChildren(), methods);
+        }
+    }
+
+    private static JavaArchive compile(Path compilationPath, String source) throws Exception {
+        File sourceFile = new File(MethodElementTest.class.getClassLoader().getResource(source).toURI());
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fm = compiler.getStandardFileManager(null, null, null)) {
+            List<String> options = Arrays.asList("-d", compilationPath.toString());
+            Assert.assertTrue(compiler.getTask(null, fm, null, options, null, fm.getJavaFileObjects(sourceFile))
+                .call());
+        }
+
+        JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "signatures.jar");
+        try (Stream<Path> classes = Files.walk(compilationPath)) {
+            classes.filter(f -> f.toString().endsWith(".class")).forEach(f -> archive.addAsResource(f.toFile(),
+                compilationPath.relativize(f).toString().replace(File.separatorChar, '/')));
+        }
+
+        return archive;
+    }
+
+    private static void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File c : children) {
+                delete(c);
+            }
+        }
+
+        f.delete();
+    }
+
+    private static final class ShrinkwrapArchive implements Archive {
+        private final JavaArchive archive;
+
+        private ShrinkwrapArchive(JavaArchive archive) {
+            this.archive = archive;
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return archive.getName();
+        }
+
+        @Nonnull
+        @Override
+        public InputStream openStream() throws IOException {
+            return archive.as(ZipExporter.class).exportAsInputStream();
+        }
+    }
+}
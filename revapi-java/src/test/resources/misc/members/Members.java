@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+public class Members extends Base implements Comparable<Used> {
+
+    //a field and a method sharing the name
+    public Used used;
+
+    public Used used() {
+        return null;
+    }
+
+    //overloads, only some of which use the type
+    public void take(Used u) {
+    }
+
+    public void take(Used u, int i) {
+    }
+
+    public void take(int i) {
+    }
+
+    //the descriptor only contains the erasure of the type variable
+    public <T extends Used> void generic(T t) {
+    }
+
+    //the class file also contains the bridge methods compareTo(Object) and get()Ljava/lang/Object;
+    @Override
+    public int compareTo(Used o) {
+        return 0;
+    }
+
+    @Override
+    public Used get() {
+        return null;
+    }
+}
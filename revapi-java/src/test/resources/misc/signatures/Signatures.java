@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+public class Signatures<T, E extends Exception> {
+
+    public Signatures(T t, List<? super T> ts) {
+    }
+
+    public <U> U generic(U u, List<? extends U> us) {
+        return u;
+    }
+
+    public <B extends Number & Comparable<B>> B intersectionBound(B b, B[] bs) {
+        return b;
+    }
+
+    public <R extends List<String>> void parameterizedBound(R r) {
+    }
+
+    public T[] arrayOfTypeVariable(T[][] ts, int[] primitives) {
+        return null;
+    }
+
+    public <X extends CharSequence> X[] arrayOfBoundedTypeVariable(X... xs) {
+        return xs;
+    }
+
+    public void throwsTypeVariable() throws E {
+    }
+
+    public <X extends IOException> void throwsBoundedTypeVariable() throws X, InterruptedException {
+    }
+
+    public Map<String, ? super T> wildcards(Map<? extends T, ?> m) {
+        return null;
+    }
+
+    public class Inner {
+        public T inner(Inner other, Signatures<String, RuntimeException>.Inner outer) {
+            return null;
+        }
+
+        public <V extends T> V innerGeneric(V v) {
+            return v;
+        }
+
+        public class Innermost<Z extends Inner> {
+            public Z innermost(Z z, Signatures<T, E>.Inner.Innermost<Z> self) {
+                return z;
+            }
+        }
+    }
+
+    public static class Nested<N extends Comparable<? super N>> {
+        public N nested(N n, List<N> ns) {
+            return n;
+        }
+    }
+}
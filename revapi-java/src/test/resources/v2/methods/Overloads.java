@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+/**
+ * By the full signatures, get2() would sort between the overloads of get(), yet they all need to correspond to the
+ * overloads in the other version of the API.
+ */
+public class Overloads {
+    public void get(int i) {
+    }
+
+    public void get(long l) {
+    }
+
+    /**
+     * Enough members for the methods to be paired up by their correspondence keys instead of in order.
+     */
+    public static class Many {
+        public void get(int i) {
+        }
+
+        public void get(long l) {
+        }
+
+        public int f0;
+        public int f1;
+        public int f2;
+        public int f3;
+        public int f4;
+        public int f5;
+        public int f6;
+        public int f7;
+        public int f8;
+        public int f9;
+        public int f10;
+        public int f11;
+        public int f12;
+        public int f13;
+        public int f14;
+        public int f15;
+        public int f16;
+        public int f17;
+        public int f18;
+        public int f19;
+        public int f20;
+        public int f21;
+        public int f22;
+        public int f23;
+        public int f24;
+        public int f25;
+        public int f26;
+        public int f27;
+        public int f28;
+        public int f29;
+    }
+}
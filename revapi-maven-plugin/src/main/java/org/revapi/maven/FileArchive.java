@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 
 import javax.annotation.Nonnull;
 
@@ -29,7 +30,7 @@ import org.revapi.Archive;
  * @author Lukas Krejci
  * @since 0.1
  */
-final class FileArchive implements Archive {
+final class FileArchive implements Archive.FileBacked {
 
     private final File file;
 
@@ -52,6 +53,12 @@ final class FileArchive implements Archive {
         return new FileInputStream(file);
     }
 
+    @Nonnull
+    @Override
+    public Path getPath() {
+        return file.toPath();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
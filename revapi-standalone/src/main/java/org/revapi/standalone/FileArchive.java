@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 
 import javax.annotation.Nonnull;
 
@@ -29,7 +30,7 @@ import org.revapi.Archive;
  * @author Lukas Krejci
  * @since 1.0
  */
-final class FileArchive implements Archive {
+final class FileArchive implements Archive.FileBacked {
 
     private final File file;
 
@@ -48,4 +49,10 @@ final class FileArchive implements Archive {
     public InputStream openStream() throws IOException {
         return new FileInputStream(file);
     }
+
+    @Nonnull
+    @Override
+    public Path getPath() {
+        return file.toPath();
+    }
 }
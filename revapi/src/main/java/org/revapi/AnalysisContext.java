@@ -20,6 +20,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -40,6 +42,10 @@ public final class AnalysisContext {
         private API oldApi;
         private API newApi;
         private ModelNode configuration;
+        private ForkJoinPool traversalPool;
+        private Executor executor;
+        private int reportQueueCapacity;
+        private AnalysisMetrics metrics;
 
         public Builder withLocale(Locale locale) {
             this.locale = locale;
@@ -97,8 +103,89 @@ public final class AnalysisContext {
             return this;
         }
 
+        /**
+         * Makes the analysis compare the element forests in parallel using the provided pool. This only has effect on
+         * the API analyzers that support it (see
+         * {@link ApiAnalyzer#getParallelDifferenceAnalyzer(ArchiveAnalyzer, ArchiveAnalyzer)}), the rest still
+         * compares the forests serially.
+         *
+         * <p>Note that the element filters are then invoked concurrently from the threads of the pool. So are the
+         * transforms, though never at the same time, as soon as the differences are found. The reporters are still
+         * invoked from the thread that runs the analysis and receive the reports in the same order as in the serial
+         * analysis, each as soon as all the elements preceding it are compared.
+         *
+         * <p>By default no pool is set and the forests are always compared serially.
+         *
+         * @param pool the pool to compare the forests in, or null to compare them serially
+         * @return this builder
+         */
+        public Builder withTraversalPool(ForkJoinPool pool) {
+            this.traversalPool = pool;
+            return this;
+        }
+
+        /**
+         * Makes the analysis run its independent parts concurrently using the provided executor. These are the
+         * analyses performed by the different API analyzers and the analyses of the old and new API archives.
+         *
+         * <p>The tasks are submitted to the executor but the thread running the analysis doesn't idly wait for them
+         * to finish - it executes the tasks that the executor hasn't started yet itself. Therefore it is safe to use
+         * an executor with a bounded number of threads, even a single one, and the tasks that the executor rejects
+         * are merely run serially.
+         *
+         * <p>The reporters and transforms are never invoked concurrently, even if the analysis itself is concurrent.
+         * The element filters can be though.
+         *
+         * <p>By default no executor is set and the analysis runs serially.
+         *
+         * @param executor the executor to run the parts of the analysis on, or null to run the analysis serially
+         * @return this builder
+         */
+        public Builder withExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Makes the reporters receive the reports asynchronously. Each reporter then processes the reports on its own
+         * thread, taking them from a queue of the provided capacity in the order they were produced. The analysis
+         * only waits for a reporter once its queue is full. All the queued reports are processed before the
+         * reporters are closed.
+         *
+         * <p>Note that the reporters then access the elements in the reports concurrently with the analysis that
+         * continues to walk the element forests.
+         *
+         * <p>By default the capacity is 0, which means that the reporters are called synchronously as the analysis
+         * progresses.
+         *
+         * @param capacity the number of reports that can wait for each reporter, 0 for synchronous reporting
+         * @return this builder
+         */
+        public Builder withReportQueueCapacity(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("Report queue capacity cannot be negative.");
+            }
+            this.reportQueueCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * Makes the analysis record its timings and counters into the provided metrics. See {@link AnalysisMetrics}
+         * for what is recorded.
+         *
+         * <p>By default no metrics are recorded.
+         *
+         * @param metrics the metrics to record into, or null to not record any
+         * @return this builder
+         */
+        public Builder withMetrics(AnalysisMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
         public AnalysisContext build() {
-            return new AnalysisContext(locale, configuration, oldApi, newApi);
+            return new AnalysisContext(locale, configuration, oldApi, newApi, traversalPool, executor,
+                reportQueueCapacity, metrics);
         }
 
         public static void merge(ModelNode a, ModelNode b) {
@@ -124,6 +211,10 @@ public final class AnalysisContext {
     private final ModelNode configuration;
     private final API oldApi;
     private final API newApi;
+    private final ForkJoinPool traversalPool;
+    private final Executor executor;
+    private final int reportQueueCapacity;
+    private final AnalysisMetrics metrics;
 
     /**
      * Constructor
@@ -135,10 +226,20 @@ public final class AnalysisContext {
      */
     public AnalysisContext(@Nonnull Locale locale, @Nullable ModelNode configuration, @Nonnull API oldApi,
         @Nonnull API newApi) {
+        this(locale, configuration, oldApi, newApi, null, null, 0, null);
+    }
+
+    private AnalysisContext(@Nonnull Locale locale, @Nullable ModelNode configuration, @Nonnull API oldApi,
+        @Nonnull API newApi, @Nullable ForkJoinPool traversalPool, @Nullable Executor executor,
+        int reportQueueCapacity, @Nullable AnalysisMetrics metrics) {
         this.locale = locale;
         this.configuration = configuration == null ? new ModelNode() : configuration;
         this.oldApi = oldApi;
         this.newApi = newApi;
+        this.traversalPool = traversalPool;
+        this.executor = executor;
+        this.reportQueueCapacity = reportQueueCapacity;
+        this.metrics = metrics;
     }
 
     @Nonnull
@@ -146,6 +247,20 @@ public final class AnalysisContext {
         return new Builder();
     }
 
+    /**
+     * Creates a copy of this context that only differs in the APIs to check.
+     *
+     * @param oldApi the old API
+     * @param newApi the new API
+     * @return a new analysis context
+     * @since 0.4
+     */
+    @Nonnull
+    public AnalysisContext copyWithApis(@Nonnull API oldApi, @Nonnull API newApi) {
+        return new AnalysisContext(locale, configuration, oldApi, newApi, traversalPool, executor, reportQueueCapacity,
+            metrics);
+    }
+
     @Nonnull
     public Locale getLocale() {
         return locale;
@@ -165,4 +280,39 @@ public final class AnalysisContext {
     public API getNewApi() {
         return newApi;
     }
+
+    /**
+     * @return the pool to compare the element forests in or null if the forests should be compared serially
+     * @see Builder#withTraversalPool(ForkJoinPool)
+     */
+    @Nullable
+    public ForkJoinPool getTraversalPool() {
+        return traversalPool;
+    }
+
+    /**
+     * @return the executor to run the independent parts of the analysis on or null if the analysis should be serial
+     * @see Builder#withExecutor(Executor)
+     */
+    @Nullable
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return the capacity of the report queues of the reporters, 0 means that the reporters are called synchronously
+     * @see Builder#withReportQueueCapacity(int)
+     */
+    public int getReportQueueCapacity() {
+        return reportQueueCapacity;
+    }
+
+    /**
+     * @return the metrics to record the timings and counters into or null if they should not be recorded
+     * @see Builder#withMetrics(AnalysisMetrics)
+     */
+    @Nullable
+    public AnalysisMetrics getMetrics() {
+        return metrics;
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Receives the timings and counters measured during the analysis. The metrics are attached to the analysis using
+ * {@link AnalysisContext.Builder#withMetrics(AnalysisMetrics)} and are available to the extensions through
+ * {@link AnalysisContext#getMetrics()} so that they can report their own measurements, too.
+ *
+ * <p>Each measurement is identified by the name of the metric and an optional subject, which distinguishes the
+ * individual contributors to the metric, like the class of the filter that took the time. The same metric and subject
+ * is usually recorded many times during the analysis and it is up to the implementation to aggregate the values.
+ *
+ * <p>The analysis itself records the following metrics:
+ * <ul>
+ *     <li>{@value #ARCHIVE_ANALYSIS} - time to analyze the old or new API archives, the subject is the class of the
+ *     API analyzer suffixed with {@code ":old"} or {@code ":new"},</li>
+ *     <li>{@value #FOREST_COMPARISON} - time to compare the element forests, including the time taken by the
+ *     transforms and reporters, the subject is the class of the API analyzer,</li>
+ *     <li>{@value #FOREST_ELEMENTS} - the number of elements in the forests, the subject is the same as with
+ *     {@value #ARCHIVE_ANALYSIS},</li>
+ *     <li>{@value #FILTER}, {@value #TRANSFORM} and {@value #REPORTER} - time spent in the individual element
+ *     filters, difference transforms and reporters, the subject is their class,</li>
+ *     <li>{@value #DIFFERENCES_PRODUCED} - the number of differences found by the difference analyzers,</li>
+ *     <li>{@value #DIFFERENCES_REMOVED} - the number of differences discarded by the transforms.</li>
+ * </ul>
+ *
+ * <p>Note that counting the elements in the forests requires the whole forests to be walked, which the analysis
+ * otherwise doesn't necessarily do, e.g. when the filters prevent descending into some elements.
+ *
+ * <p>The implementations must be thread-safe, because the metrics can be recorded concurrently if the analysis runs
+ * in parallel (see {@link AnalysisContext.Builder#withExecutor(java.util.concurrent.Executor)}) or if the reporters
+ * are called asynchronously.
+ *
+ * @author agent
+ * @since 0.4
+ */
+public interface AnalysisMetrics {
+    String ARCHIVE_ANALYSIS = "archive-analysis";
+    String FOREST_COMPARISON = "forest-comparison";
+    String FOREST_ELEMENTS = "forest-elements";
+    String FILTER = "filter";
+    String TRANSFORM = "transform";
+    String REPORTER = "reporter";
+    String DIFFERENCES_PRODUCED = "differences.produced";
+    String DIFFERENCES_REMOVED = "differences.removed";
+
+    /**
+     * Records the time spent doing something.
+     *
+     * @param metric  the name of the metric
+     * @param subject the subject that took the time or null if the time is only recorded for the metric as a whole
+     * @param nanos   the time in nanoseconds
+     */
+    void recordTime(@Nonnull String metric, @Nullable String subject, long nanos);
+
+    /**
+     * Adds the provided number to a counter.
+     *
+     * @param metric  the name of the metric
+     * @param subject the subject of the counter or null if the number is only counted for the metric as a whole
+     * @param count   the number to add to the counter
+     */
+    void recordCount(@Nonnull String metric, @Nullable String subject, long count);
+}
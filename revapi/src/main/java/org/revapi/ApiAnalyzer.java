@@ -17,6 +17,7 @@
 package org.revapi;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.revapi.configuration.Configurable;
 
@@ -37,6 +38,10 @@ public interface ApiAnalyzer extends AutoCloseable, Configurable {
      * This method is called exactly twice during the API difference analysis. The first time it is called to obtain
      * an archive analyzer for the old version of the archives and the second time for the new version of the archives.
      *
+     * <p>When analyzing the evolution of an API using
+     * {@link Revapi#analyzeEvolution(AnalysisContext, java.util.List, Revapi.Evolution)}, it is called once for each
+     * version of the API and the archive analyzer is then used in all the comparisons involving that version.
+     *
      * @param api the api to analyze
      *
      * @return the analyzer for the supplied archives
@@ -46,7 +51,8 @@ public interface ApiAnalyzer extends AutoCloseable, Configurable {
 
     /**
      * This method is called exactly once during the API difference analysis and produces an element analyzer which
-     * will be used to compare the corresponding elements in the old and new archives.
+     * will be used to compare the corresponding elements in the old and new archives. When analyzing the evolution of
+     * an API, it is called once for each compared pair of its versions.
      *
      * @param oldArchive the analyzer used for the old archives
      * @param newArchive the analyzer used for the new archives
@@ -56,4 +62,36 @@ public interface ApiAnalyzer extends AutoCloseable, Configurable {
     @Nonnull
     DifferenceAnalyzer getDifferenceAnalyzer(@Nonnull ArchiveAnalyzer oldArchive,
         @Nonnull ArchiveAnalyzer newArchive);
+
+    /**
+     * This method is called only if the analysis is configured to compare the element forests in parallel (see
+     * {@link AnalysisContext.Builder#withTraversalPool(java.util.concurrent.ForkJoinPool)}). It may be called
+     * several times during a single analysis, each time to produce a new difference analyzer that will be used to
+     * compare some of the subtrees of the root elements concurrently with the other difference analyzers produced by
+     * this method. A single difference analyzer is only ever used by one thread at a time but can be used for several
+     * subtrees in succession (just as with the serial analysis).
+     *
+     * <p>The elements of the forests are then accessed from several threads at once - by the difference analyzers,
+     * the element filters and the transforms. An API analyzer should therefore only provide the parallel difference
+     * analyzers if its elements, and whatever model backs them, support concurrent access. Note that the transforms
+     * are invoked on the reports of the analyzer in the thread that uses it, but the reporters can receive the reports
+     * later, from another thread, when the analyzer is already comparing other elements.
+     *
+     * <p>If this method returns a difference analyzer, {@link #getDifferenceAnalyzer(ArchiveAnalyzer, ArchiveAnalyzer)}
+     * is not called for the compared pair of versions.
+     *
+     * <p>The default implementation returns null, which means that this API analyzer doesn't support the parallel
+     * analysis and its element forests are compared serially.
+     *
+     * @param oldArchive the analyzer used for the old archives
+     * @param newArchive the analyzer used for the new archives
+     *
+     * @return a new element analyzer that can be used concurrently with others or null if parallel analysis is not
+     * supported
+     */
+    @Nullable
+    default DifferenceAnalyzer getParallelDifferenceAnalyzer(@Nonnull ArchiveAnalyzer oldArchive,
+        @Nonnull ArchiveAnalyzer newArchive) {
+        return null;
+    }
 }
@@ -18,6 +18,7 @@ package org.revapi;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 
 import javax.annotation.Nonnull;
 
@@ -33,4 +34,20 @@ public interface Archive {
 
     @Nonnull
     InputStream openStream() throws IOException;
+
+    /**
+     * An archive that is backed by a file on the local filesystem. The analyzers can then read the file directly, in
+     * any way they see fit, instead of going through the {@link #openStream()} which might for example require them
+     * to copy the archive elsewhere first.
+     *
+     * @since 0.4
+     */
+    interface FileBacked extends Archive {
+
+        /**
+         * @return the path to the file of the archive
+         */
+        @Nonnull
+        Path getPath();
+    }
 }
@@ -22,11 +22,27 @@ import javax.annotation.Nonnull;
  * The instances of implementations of this interface are produced by the {@link org.revapi.ApiAnalyzer}s to
  * analyze the API archives and create an element tree that is then used for API comparison.
  *
+ * <p>If the analysis is configured with an {@link AnalysisContext#getExecutor() executor}, the archive analyzers of the
+ * old and new API are run concurrently.
+ *
+ * <p>The archive analyzer is closed once the element forest it produced is no longer needed, i.e. after the difference
+ * analyzers comparing it with the forests of the other versions of the API are closed.
+ *
  * @author Lukas Krejci
  * @since 0.1
  */
-public interface ArchiveAnalyzer {
+public interface ArchiveAnalyzer extends AutoCloseable {
 
     @Nonnull
     ElementForest analyze();
+
+    /**
+     * Releases the resources backing the element forest produced by this analyzer. The default implementation does
+     * nothing.
+     *
+     * @since 0.4
+     */
+    @Override
+    default void close() throws Exception {
+    }
 }
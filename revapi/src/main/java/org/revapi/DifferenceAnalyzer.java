@@ -51,6 +51,28 @@ public interface DifferenceAnalyzer extends AutoCloseable {
     @Nonnull
     Comparator<? super Element> getCorrespondenceComparator();
 
+    /**
+     * Returns the key under which the element corresponds to the elements from the other version of the API. This
+     * enables pairing up the elements using a hash join instead of walking them in the order of the
+     * {@link #getCorrespondenceComparator() correspondence comparator}.
+     *
+     * <p>The keys must be consistent with the correspondence comparator, i.e. two elements from the same parent must
+     * have equal keys if and only if the comparator pronounces them equal.
+     *
+     * <p>If the analyzer returns null for any of the children of an element, the children are paired up using the
+     * correspondence comparator. The default implementation returns null, so the comparator is always used.
+     *
+     * @param element the element to return the correspondence key of
+     *
+     * @return the key with sensible {@code equals()} and {@code hashCode()} or null if not supported
+     *
+     * @since 0.4
+     */
+    @Nullable
+    default Object getCorrespondenceKey(@Nonnull Element element) {
+        return null;
+    }
+
     /**
      * Called right before the analysis starts. Can be used to "warm up" the analyzer. The corresponding
      * {@link #close()} method is provided through the {@link java.lang.AutoCloseable} super interface.
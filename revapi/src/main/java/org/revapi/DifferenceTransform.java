@@ -28,6 +28,18 @@ import org.revapi.configuration.Configurable;
  * in custom extensions that want to "modify the behavior" of other extensions by consuming and transforming the
  * differences found by the other extensions into something else.
  *
+ * <p>Each difference is passed through all the transforms matching its code just once, in the order in which the
+ * transforms were given to Revapi, each transform receiving the result of the previous one. If any of the transforms
+ * returns null, the difference is discarded. If a transform changes the code of the difference, the rest of the
+ * transforms of the old code are skipped and the difference is passed through the transforms matching the new code in
+ * the same manner. Whether the difference is discarded is then decided only by the transforms of the new code, even if
+ * some transform of the old code returned null before the code was changed. If a transform needs the differences to be
+ * transformed repeatedly until no transform changes them anymore, it can request that by returning true from
+ * {@link #requiresFixpoint()}.
+ *
+ * <p>Note that before version 0.4.0, all the transforms of a code received the same difference and the transforms were
+ * re-applied until none of them changed the difference anymore.
+ *
  * @param <T> the type of the element expected in the {@code transform} method. Note that you need to be careful about
  *            this type because the types of the elements passed to {@code transform} depend on the differences that the
  *            transform is interested in. Thus you may end up with {@code ClassCastException}s if you're not careful.
@@ -60,4 +72,18 @@ public interface DifferenceTransform<T extends Element> extends AutoCloseable, C
      */
     @Nullable
     Difference transform(@Nullable T oldElement, @Nullable T newElement, @Nonnull Difference difference);
+
+    /**
+     * If this returns true and this transform changes a difference, the difference is passed through all the
+     * matching transforms (including this one) again. This repeats until no such transform changes the difference
+     * anymore. Note that such transform therefore needs to return the very same difference instance it has been given
+     * once there is nothing more to transform, otherwise the transformation never ends.
+     *
+     * <p>The default implementation returns false, meaning that a single pass through the transforms is enough.
+     *
+     * @return true if the differences changed by this transform need to be transformed again, false otherwise
+     */
+    default boolean requiresFixpoint() {
+        return false;
+    }
 }
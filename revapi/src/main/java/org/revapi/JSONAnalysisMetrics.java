@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Aggregates the metrics recorded during the analysis and dumps them as JSON. The metrics can be recorded from
+ * several analyses, the aggregates then cover all of them.
+ *
+ * <p>The JSON has the following structure (the metrics and subjects are sorted by name):
+ * <pre><code>
+ * {
+ *     "times" : {
+ *         "metric" : {
+ *             "count" : ..., "totalNanos" : ..., "minNanos" : ..., "maxNanos" : ...,
+ *             "subjects" : {
+ *                 "subject" : { "count" : ..., "totalNanos" : ..., "minNanos" : ..., "maxNanos" : ... },
+ *                 ...
+ *             }
+ *         },
+ *         ...
+ *     },
+ *     "counts" : {
+ *         "metric" : {
+ *             "total" : ...,
+ *             "subjects" : {
+ *                 "subject" : { "total" : ... },
+ *                 ...
+ *             }
+ *         },
+ *         ...
+ *     }
+ * }
+ * </code></pre>
+ *
+ * @author agent
+ * @since 0.4
+ */
+public final class JSONAnalysisMetrics implements AnalysisMetrics {
+    private final ConcurrentMap<String, Metric> times = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Metric> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordTime(@Nonnull String metric, @Nullable String subject, long nanos) {
+        times.computeIfAbsent(metric, m -> new Metric()).record(subject, nanos);
+    }
+
+    @Override
+    public void recordCount(@Nonnull String metric, @Nullable String subject, long count) {
+        counts.computeIfAbsent(metric, m -> new Metric()).record(subject, count);
+    }
+
+    /**
+     * @return the snapshot of the metrics recorded so far in the structure described in the class javadoc
+     */
+    @Nonnull
+    public ModelNode toModelNode() {
+        ModelNode ret = new ModelNode();
+
+        ModelNode timesNode = ret.get("times").setEmptyObject();
+        for (Map.Entry<String, Metric> e : new TreeMap<>(times).entrySet()) {
+            e.getValue().toTimesNode(timesNode.get(e.getKey()));
+        }
+
+        ModelNode countsNode = ret.get("counts").setEmptyObject();
+        for (Map.Entry<String, Metric> e : new TreeMap<>(counts).entrySet()) {
+            e.getValue().toCountsNode(countsNode.get(e.getKey()));
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return the metrics recorded so far as a JSON string
+     */
+    @Nonnull
+    public String toJSONString() {
+        return toModelNode().toJSONString(false);
+    }
+
+    /**
+     * Writes the metrics recorded so far as JSON to the provided writer. The writer is flushed but not closed.
+     *
+     * @param writer the writer to write the JSON to
+     */
+    public void writeJSON(@Nonnull Writer writer) {
+        PrintWriter out = new PrintWriter(writer);
+        toModelNode().writeJSONString(out, false);
+        out.flush();
+    }
+
+    @Override
+    public String toString() {
+        return "JSONAnalysisMetrics[times=" + times.keySet() + ", counts=" + counts.keySet() + "]";
+    }
+
+    private static final class Metric {
+        final Aggregate total = new Aggregate();
+        final ConcurrentMap<String, Aggregate> subjects = new ConcurrentHashMap<>();
+
+        void record(@Nullable String subject, long value) {
+            total.record(value);
+            if (subject != null) {
+                subjects.computeIfAbsent(subject, s -> new Aggregate()).record(value);
+            }
+        }
+
+        void toTimesNode(ModelNode node) {
+            total.toTimesNode(node);
+
+            ModelNode subjectsNode = node.get("subjects").setEmptyObject();
+            for (Map.Entry<String, Aggregate> e : new TreeMap<>(subjects).entrySet()) {
+                e.getValue().toTimesNode(subjectsNode.get(e.getKey()));
+            }
+        }
+
+        void toCountsNode(ModelNode node) {
+            total.toCountsNode(node);
+
+            ModelNode subjectsNode = node.get("subjects").setEmptyObject();
+            for (Map.Entry<String, Aggregate> e : new TreeMap<>(subjects).entrySet()) {
+                e.getValue().toCountsNode(subjectsNode.get(e.getKey()));
+            }
+        }
+    }
+
+    private static final class Aggregate {
+        final LongAdder count = new LongAdder();
+        final LongAdder total = new LongAdder();
+        final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+        final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+        void record(long value) {
+            count.increment();
+            total.add(value);
+            min.accumulateAndGet(value, Math::min);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        void toTimesNode(ModelNode node) {
+            long cnt = count.sum();
+            node.get("count").set(cnt);
+            node.get("totalNanos").set(total.sum());
+            node.get("minNanos").set(cnt == 0 ? 0 : min.get());
+            node.get("maxNanos").set(cnt == 0 ? 0 : max.get());
+        }
+
+        void toCountsNode(ModelNode node) {
+            node.get("total").set(total.sum());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Hands the reports over to the reporters asynchronously. Each reporter has its own thread that takes the reports from
+ * a bounded queue in the order they were dispatched. If the queue of some reporter is full, the dispatch blocks until
+ * that reporter catches up.
+ *
+ * @author agent
+ * @since 0.4
+ */
+final class ReportDispatcher implements AutoCloseable {
+    private static final Report END = new Report(Collections.<Difference>emptyList(), null, null);
+
+    private final List<Worker> workers = new ArrayList<>();
+    private boolean closed;
+
+    ReportDispatcher(@Nonnull Iterable<? extends Reporter> reporters, int queueCapacity,
+        @Nullable AnalysisMetrics metrics) {
+        int cnt = 0;
+        for (Reporter r : reporters) {
+            Worker w = new Worker(r, queueCapacity, metrics, ++cnt);
+            workers.add(w);
+            w.start();
+        }
+    }
+
+    /**
+     * Queues the report for all the reporters.
+     *
+     * @param report the report to dispatch
+     *
+     * @throws IllegalStateException if some of the reporters failed to process some previous report or if interrupted
+     *                               while waiting for space in the queues
+     */
+    void dispatch(@Nonnull Report report) {
+        for (Worker w : workers) {
+            if (w.failure != null) {
+                throw new IllegalStateException("Reporter " + w.reporter + " failed to process a report.", w.failure);
+            }
+
+            boolean queued;
+            try {
+                queued = enqueue(w, report);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while dispatching a report to reporter " + w.reporter,
+                    e);
+            }
+
+            if (!queued) {
+                throw new IllegalStateException("The thread of reporter " + w.reporter + " has stopped.", w.failure);
+            }
+
+            w.dispatched++;
+        }
+    }
+
+    /**
+     * Waits for all the reporters to process the reports dispatched so far. This needs to be done before the elements
+     * in the reports are disposed of. Unlike {@link #close()}, this neither stops the reporter threads nor reports
+     * their failures.
+     */
+    void flush() {
+        for (Worker w : workers) {
+            long dispatched = w.dispatched;
+            synchronized (w.progress) {
+                while (w.processed < dispatched && w.isAlive()) {
+                    try {
+                        w.progress.wait(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for all the reporters to process all the reports dispatched so far and stops the reporter threads.
+     *
+     * @throws Exception if any of the reporters failed to process some of the reports
+     */
+    @Override
+    public void close() throws Exception {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        for (Worker w : workers) {
+            //if the worker is dead, there's nobody to stop anymore
+            enqueue(w, END);
+        }
+
+        Exception thrown = null;
+        for (Worker w : workers) {
+            w.join();
+
+            if (w.failure != null) {
+                if (thrown == null) {
+                    thrown = new Exception("Some reporters failed to process the reports.");
+                }
+
+                thrown.addSuppressed(w.failure);
+            }
+        }
+
+        if (thrown != null) {
+            throw thrown;
+        }
+    }
+
+    /**
+     * Puts the report in the queue of the worker, waiting for space in the queue only while the worker is alive. A dead
+     * worker doesn't take anything from its queue anymore, so blocking on a full queue would never end.
+     *
+     * @return true if the report was queued, false if the worker is dead
+     */
+    private static boolean enqueue(Worker w, Report report) throws InterruptedException {
+        while (!w.queue.offer(report, 100, TimeUnit.MILLISECONDS)) {
+            if (!w.isAlive()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static final class Worker extends Thread {
+        final Reporter reporter;
+        final BlockingQueue<Report> queue;
+        final AnalysisMetrics metrics;
+        final Object progress = new Object();
+        volatile Throwable failure;
+
+        /**
+         * The number of reports put in the queue. Only modified by the dispatching thread.
+         */
+        volatile long dispatched;
+
+        /**
+         * The number of reports taken from the queue and processed (or skipped after a failure). Guarded by
+         * {@link #progress}.
+         */
+        long processed;
+
+        Worker(Reporter reporter, int queueCapacity, AnalysisMetrics metrics, int index) {
+            super("Revapi Reporter Thread #" + index);
+            this.reporter = reporter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.metrics = metrics;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Report report;
+                try {
+                    report = queue.take();
+                } catch (InterruptedException e) {
+                    failure = e;
+                    return;
+                }
+
+                if (report == END) {
+                    return;
+                }
+
+                //once the reporter fails, we only keep emptying the queue so that the dispatch doesn't block forever
+                if (failure == null) {
+                    try {
+                        if (metrics == null) {
+                            reporter.report(report);
+                        } else {
+                            long time = System.nanoTime();
+                            reporter.report(report);
+                            metrics.recordTime(AnalysisMetrics.REPORTER, reporter.getClass().getName(),
+                                System.nanoTime() - time);
+                        }
+                    } catch (RuntimeException | Error e) {
+                        failure = e;
+                    }
+                }
+
+                synchronized (progress) {
+                    processed++;
+                    progress.notifyAll();
+                }
+            }
+        }
+    }
+}
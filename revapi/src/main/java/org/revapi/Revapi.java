@@ -17,19 +17,36 @@
 package org.revapi;
 
 import java.io.Reader;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.Queue;
 import java.util.SortedSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
@@ -39,12 +56,15 @@ import org.revapi.configuration.Configurable;
 import org.revapi.configuration.ConfigurationException;
 import org.revapi.configuration.ConfigurationValidator;
 import org.revapi.configuration.ValidationResult;
+import org.revapi.simple.SortedArraySet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The main entry point to the library. The instance of this class is initialized with the different extensions and then
- * can run analyses on APIs with different configurations using the {@link #analyze(AnalysisContext)} method.
+ * can run analyses on APIs with different configurations using the {@link #analyze(AnalysisContext)} method. The
+ * evolution of an API through several versions can be analyzed using the
+ * {@link #analyzeEvolution(AnalysisContext, List, Evolution)} method.
  *
  * @author Lukas Krejci
  * @since 1.0
@@ -52,6 +72,11 @@ import org.slf4j.LoggerFactory;
 public final class Revapi {
     private static final Logger LOG = LoggerFactory.getLogger(Revapi.class);
 
+    /**
+     * The minimum combined size of the two sets of elements for which it pays off to pair them up using the hash join.
+     */
+    private static final int HASH_JOIN_THRESHOLD = 32;
+
     public static final class Builder {
         private Set<ApiAnalyzer> analyzers = null;
         private Set<Reporter> reporters = null;
@@ -144,7 +169,8 @@ public final class Revapi {
         @Nonnull
         public Builder withTransforms(@Nonnull Iterable<? extends DifferenceTransform<?>> transforms) {
             if (this.transforms == null) {
-                this.transforms = new HashSet<>();
+                //each transform receives the result of the previous one, so keep the order they were given in
+                this.transforms = new LinkedHashSet<>();
             }
             for (DifferenceTransform<?> t : transforms) {
                 this.transforms.add(t);
@@ -202,10 +228,44 @@ public final class Revapi {
         }
     }
 
+    /**
+     * The pairs of the versions of an API compared by {@link #analyzeEvolution(AnalysisContext, List, Evolution)}.
+     *
+     * @since 0.4
+     */
+    public enum Evolution {
+        /**
+         * Each version is compared with the version directly following it, i.e. v1 with v2, v2 with v3, etc.
+         */
+        CONSECUTIVE,
+
+        /**
+         * Each version is compared with all the versions following it, i.e. v1 with v2, v1 with v3, ..., v2 with v3,
+         * etc.
+         */
+        ALL_PAIRS;
+
+        List<int[]> getPairs(int versionCount) {
+            List<int[]> ret = new ArrayList<>();
+            for (int i = 0; i < versionCount - 1; ++i) {
+                if (this == CONSECUTIVE) {
+                    ret.add(new int[]{i, i + 1});
+                } else {
+                    for (int j = i + 1; j < versionCount; ++j) {
+                        ret.add(new int[]{i, j});
+                    }
+                }
+            }
+
+            return ret;
+        }
+    }
+
     private static class CompoundFilter implements ElementFilter, Iterable<ElementFilter> {
         private final Collection<? extends ElementFilter> filters;
         private final String[] allConfigRoots;
         private final Map<String, ElementFilter> rootsToFilters;
+        private AnalysisMetrics metrics;
 
         private CompoundFilter(Collection<? extends ElementFilter> filters) {
             this.filters = filters;
@@ -270,7 +330,11 @@ public final class Revapi {
         @Override
         public boolean applies(@Nullable Element element) {
             for (ElementFilter f : filters) {
-                if (!f.applies(element)) {
+                long time = startTiming(metrics);
+                boolean applies = f.applies(element);
+                recordTime(metrics, AnalysisMetrics.FILTER, f, time);
+
+                if (!applies) {
                     return false;
                 }
             }
@@ -283,7 +347,13 @@ public final class Revapi {
             boolean hasNoFilters = !it.hasNext();
 
             while (it.hasNext()) {
-                if (it.next().shouldDescendInto(element)) {
+                ElementFilter f = it.next();
+
+                long time = startTiming(metrics);
+                boolean descend = f.shouldDescendInto(element);
+                recordTime(metrics, AnalysisMetrics.FILTER, f, time);
+
+                if (descend) {
                     return true;
                 }
             }
@@ -298,6 +368,242 @@ public final class Revapi {
         }
     }
 
+    /**
+     * Hands out the difference analyzers to the tasks of the parallel analysis. The analyzers are created lazily and
+     * reused by the subsequent tasks so that there is never more of them than there are threads in the pool.
+     */
+    private static final class ParallelAnalyzers implements AutoCloseable {
+        private final ApiAnalyzer apiAnalyzer;
+        private final ArchiveAnalyzer oldAnalyzer;
+        private final ArchiveAnalyzer newAnalyzer;
+        private final DifferenceAnalyzer first;
+        private final Queue<DifferenceAnalyzer> idle = new ConcurrentLinkedQueue<>();
+        private final Queue<DifferenceAnalyzer> all = new ConcurrentLinkedQueue<>();
+
+        private ParallelAnalyzers(ApiAnalyzer apiAnalyzer, ArchiveAnalyzer oldAnalyzer, ArchiveAnalyzer newAnalyzer,
+            DifferenceAnalyzer first) {
+            this.apiAnalyzer = apiAnalyzer;
+            this.oldAnalyzer = oldAnalyzer;
+            this.newAnalyzer = newAnalyzer;
+            this.first = first;
+
+            first.open();
+            idle.add(first);
+            all.add(first);
+        }
+
+        DifferenceAnalyzer acquire() {
+            DifferenceAnalyzer ret = idle.poll();
+            if (ret == null) {
+                ret = apiAnalyzer.getParallelDifferenceAnalyzer(oldAnalyzer, newAnalyzer);
+                if (ret == null) {
+                    throw new IllegalStateException("API analyzer " + apiAnalyzer + " stopped providing difference" +
+                        " analyzers for the parallel analysis.");
+                }
+
+                ret.open();
+                all.add(ret);
+            }
+
+            return ret;
+        }
+
+        void release(DifferenceAnalyzer analyzer) {
+            idle.add(analyzer);
+        }
+
+        @Override
+        public void close() throws Exception {
+            Exception thrown = null;
+            for (DifferenceAnalyzer a : all) {
+                try {
+                    a.close();
+                } catch (Exception e) {
+                    if (thrown == null) {
+                        thrown = new Exception("Failed to close some difference analyzers");
+                    }
+
+                    thrown.addSuppressed(e);
+                }
+            }
+
+            if (thrown != null) {
+                throw thrown;
+            }
+        }
+    }
+
+    /**
+     * Compares a chunk of the paired up root elements. The reports are transformed right away, so that only those that
+     * still contain some differences need to be kept until the chunks before this one are reported. These are returned
+     * in the order of the roots.
+     */
+    private final class SubtreeComparison extends RecursiveTask<List<Report>> {
+        private final ParallelAnalyzers analyzers;
+        private final List<Element> olds;
+        private final List<Element> news;
+        private final int from;
+        private final int to;
+
+        private SubtreeComparison(ParallelAnalyzers analyzers, List<Element> olds, List<Element> news, int from,
+            int to) {
+            this.analyzers = analyzers;
+            this.olds = olds;
+            this.news = news;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Report> compute() {
+            List<Report> ret = new ArrayList<>();
+            DifferenceAnalyzer analyzer = analyzers.acquire();
+            try {
+                for (int i = from; i < to; ++i) {
+                    Element a = olds.get(i);
+                    Element b = news.get(i);
+
+                    analyze(analyzer, a, b, r -> {
+                        if (r == null) {
+                            return;
+                        }
+
+                        synchronized (reportingLock) {
+                            transform(r);
+                        }
+
+                        if (!r.getDifferences().isEmpty()) {
+                            ret.add(r);
+                        }
+                    });
+                }
+            } finally {
+                analyzers.release(analyzer);
+            }
+
+            return ret;
+        }
+    }
+
+    /**
+     * A task submitted to the executor of the analysis, which can be run by whichever thread gets to it first - the
+     * executor or the analysis thread waiting for it (see {@link #join(SubmittedTask)}).
+     */
+    private static final class SubmittedTask<T> extends FutureTask<T> {
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private SubmittedTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            if (started.compareAndSet(false, true)) {
+                super.run();
+            }
+        }
+
+        /**
+         * Makes sure the task doesn't run anymore once this method returns. If the task hasn't been started yet, it is
+         * cancelled, otherwise this waits for it to finish. The outcome of the task is ignored either way.
+         */
+        void cancelOrAwait() {
+            if (started.compareAndSet(false, true)) {
+                cancel(false);
+                return;
+            }
+
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    break;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The archive analyzers and element forests of the versions of an API produced by a single API analyzer during the
+     * analysis of the evolution of the API. The archives of each version are analyzed when the version is first
+     * compared and the results are kept until the version is released.
+     */
+    private final class VersionForests {
+        private final ApiAnalyzer apiAnalyzer;
+        private final List<API> versions;
+        private final ArchiveAnalyzer[] archiveAnalyzers;
+        private final ElementForest[] forests;
+
+        private VersionForests(ApiAnalyzer apiAnalyzer, List<API> versions) {
+            this.apiAnalyzer = apiAnalyzer;
+            this.versions = versions;
+            this.archiveAnalyzers = new ArchiveAnalyzer[versions.size()];
+            this.forests = new ElementForest[versions.size()];
+        }
+
+        void compare(AnalysisContext analysisContext, int oldIndex, int newIndex) throws Exception {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Starting analysis using " + apiAnalyzer + " on:\nOld API:\n" + versions.get(oldIndex)
+                    + "\n\nNew API:\n" + versions.get(newIndex));
+            }
+
+            if (forests[oldIndex] == null && forests[newIndex] == null) {
+                archiveAnalyzers[oldIndex] = apiAnalyzer.getArchiveAnalyzer(versions.get(oldIndex));
+                archiveAnalyzers[newIndex] = apiAnalyzer.getArchiveAnalyzer(versions.get(newIndex));
+
+                ElementForest[] trees = analyzeArchives(analysisContext.getExecutor(), archiveAnalyzers[oldIndex],
+                    getSubject(oldIndex), archiveAnalyzers[newIndex], getSubject(newIndex));
+
+                forests[oldIndex] = trees[0];
+                forests[newIndex] = trees[1];
+            } else {
+                analyzeIfNeeded(oldIndex);
+                analyzeIfNeeded(newIndex);
+            }
+
+            compareForests(apiAnalyzer, analysisContext, archiveAnalyzers[oldIndex], forests[oldIndex],
+                getSubject(oldIndex), archiveAnalyzers[newIndex], forests[newIndex], getSubject(newIndex));
+        }
+
+        void release(int index) {
+            if (archiveAnalyzers[index] != null) {
+                closeAll(Collections.singleton(archiveAnalyzers[index]), "archive analyzer");
+            }
+
+            archiveAnalyzers[index] = null;
+            forests[index] = null;
+        }
+
+        void releaseAll() {
+            for (int i = 0; i < archiveAnalyzers.length; ++i) {
+                release(i);
+            }
+        }
+
+        private void analyzeIfNeeded(int index) {
+            if (forests[index] == null) {
+                archiveAnalyzers[index] = apiAnalyzer.getArchiveAnalyzer(versions.get(index));
+                forests[index] = analyzeArchive(archiveAnalyzers[index], getSubject(index));
+            }
+        }
+
+        private String getSubject(int index) {
+            return apiAnalyzer.getClass().getName() + ":version-" + (index + 1);
+        }
+    }
+
+    private interface ApiAnalysis {
+        void run(ApiAnalyzer apiAnalyzer) throws Exception;
+    }
+
     private final Set<ApiAnalyzer> availableApiAnalyzers;
     private final Set<Reporter> availableReporters;
     private final Set<DifferenceTransform<?>> availableTransforms;
@@ -305,6 +611,9 @@ public final class Revapi {
     private final ConfigurationValidator configurationValidator;
 
     private final Map<String, List<DifferenceTransform<?>>> matchingTransformsCache = new HashMap<>();
+    private final Object reportingLock = new Object();
+    private ReportDispatcher reportDispatcher;
+    private AnalysisMetrics metrics;
 
     @Nonnull
     public static Builder builder() {
@@ -316,7 +625,8 @@ public final class Revapi {
      *
      * @param availableApiAnalyzers the set of analyzers to use
      * @param availableReporters the set of reporters to use
-     * @param availableTransforms the set of transforms to use
+     * @param availableTransforms the set of transforms to use, in the order in which they are applied to the
+     *                            differences
      * @param elementFilters the set of element filters to use
      *
      * @throws java.lang.IllegalArgumentException if any of the parameters is null
@@ -345,15 +655,171 @@ public final class Revapi {
             throw new ConfigurationException(validation.toString());
         }
 
+        metrics = analysisContext.getMetrics();
+        availableFilters.metrics = metrics;
+
         try {
-            for (ApiAnalyzer analyzer : availableApiAnalyzers) {
-                analyzeWith(analyzer, analysisContext.getOldApi(), analysisContext.getNewApi());
-            }
+            analyzeWithAll(analysisContext, apiAnalyzer -> analyzeWith(apiAnalyzer, analysisContext));
         } finally {
             closeAll(availableTransforms, "problem transform");
             closeAll(availableFilters, "element filters");
             closeAll(availableApiAnalyzers, "api analyzer");
             closeAll(availableReporters, "reporter");
+            availableFilters.metrics = null;
+            metrics = null;
+        }
+    }
+
+    /**
+     * Analyzes the evolution of an API through its versions. This is equivalent to running
+     * {@link #analyze(AnalysisContext)} for each compared pair of the versions, but the archives of each version are
+     * only analyzed once by each API analyzer. The resulting element forests are kept for the comparisons with the
+     * other versions and are released as soon as the last comparison involving them is done.
+     *
+     * <p>The pairs are compared in the order of their old and then new versions. The reporters and transforms are
+     * initialized for each compared pair with a copy of the provided context that has the versions in the pair as its
+     * old and new API, so each pair is reported as if it was analyzed separately. The API analyzers and element
+     * filters are initialized just once for the whole analysis, with the first version as the old API and the last
+     * version as the new API.
+     *
+     * @param analysisContext the configuration of the analysis, its old and new API are ignored
+     * @param versions the versions of the API, from the oldest to the newest
+     * @param evolution the pairs of the versions to compare
+     * @throws Exception on analysis failure
+     * @since 0.4
+     */
+    public void analyzeEvolution(@Nonnull AnalysisContext analysisContext, @Nonnull List<API> versions,
+        @Nonnull Evolution evolution) throws Exception {
+
+        if (versions.size() < 2) {
+            throw new IllegalArgumentException("At least two versions of the API are needed to analyze its evolution.");
+        }
+
+        AnalysisContext evolutionContext = analysisContext.copyWithApis(versions.get(0),
+            versions.get(versions.size() - 1));
+
+        ValidationResult validation = ValidationResult.success();
+
+        validation = initialize(evolutionContext, validation, availableFilters);
+        validation = initialize(evolutionContext, validation, availableApiAnalyzers);
+
+        if (!validation.isSuccessful()) {
+            throw new ConfigurationException(validation.toString());
+        }
+
+        metrics = analysisContext.getMetrics();
+        availableFilters.metrics = metrics;
+
+        List<int[]> pairs = evolution.getPairs(versions.size());
+
+        //the index of the last pair each version is compared in
+        int[] lastUse = new int[versions.size()];
+        for (int i = 0; i < pairs.size(); ++i) {
+            lastUse[pairs.get(i)[0]] = i;
+            lastUse[pairs.get(i)[1]] = i;
+        }
+
+        Map<ApiAnalyzer, VersionForests> forests = new HashMap<>();
+        for (ApiAnalyzer apiAnalyzer : availableApiAnalyzers) {
+            forests.put(apiAnalyzer, new VersionForests(apiAnalyzer, versions));
+        }
+
+        try {
+            for (int i = 0; i < pairs.size(); ++i) {
+                int oldIndex = pairs.get(i)[0];
+                int newIndex = pairs.get(i)[1];
+
+                AnalysisContext pairContext = analysisContext.copyWithApis(versions.get(oldIndex),
+                    versions.get(newIndex));
+
+                validation = ValidationResult.success();
+                validation = initialize(pairContext, validation, availableReporters);
+                validation = initialize(pairContext, validation, availableTransforms);
+
+                matchingTransformsCache.clear();
+
+                if (!validation.isSuccessful()) {
+                    throw new ConfigurationException(validation.toString());
+                }
+
+                try {
+                    analyzeWithAll(pairContext,
+                        apiAnalyzer -> forests.get(apiAnalyzer).compare(pairContext, oldIndex, newIndex));
+                } finally {
+                    closeAll(availableTransforms, "problem transform");
+                    closeAll(availableReporters, "reporter");
+                }
+
+                for (int version : pairs.get(i)) {
+                    if (lastUse[version] == i) {
+                        for (VersionForests f : forests.values()) {
+                            f.release(version);
+                        }
+                    }
+                }
+            }
+        } finally {
+            for (VersionForests f : forests.values()) {
+                f.releaseAll();
+            }
+            closeAll(availableFilters, "element filters");
+            closeAll(availableApiAnalyzers, "api analyzer");
+            availableFilters.metrics = null;
+            metrics = null;
+        }
+    }
+
+    /**
+     * Runs the provided analysis with each of the API analyzers, concurrently if the context provides an executor.
+     */
+    private void analyzeWithAll(AnalysisContext analysisContext, ApiAnalysis analysis) throws Exception {
+        if (analysisContext.getReportQueueCapacity() > 0) {
+            reportDispatcher = new ReportDispatcher(availableReporters, analysisContext.getReportQueueCapacity(),
+                metrics);
+        }
+
+        try {
+            Executor executor = analysisContext.getExecutor();
+            if (executor == null || availableApiAnalyzers.size() < 2) {
+                for (ApiAnalyzer analyzer : availableApiAnalyzers) {
+                    analysis.run(analyzer);
+                }
+            } else {
+                List<SubmittedTask<Void>> analyses = new ArrayList<>();
+                for (ApiAnalyzer analyzer : availableApiAnalyzers) {
+                    analyses.add(submit(executor, () -> {
+                        analysis.run(analyzer);
+                        return null;
+                    }));
+                }
+
+                Exception thrown = null;
+                for (SubmittedTask<Void> task : analyses) {
+                    try {
+                        join(task);
+                    } catch (Exception e) {
+                        if (thrown == null) {
+                            thrown = e;
+                        } else {
+                            thrown.addSuppressed(e);
+                        }
+                    }
+                }
+
+                if (thrown != null) {
+                    throw thrown;
+                }
+            }
+
+            if (reportDispatcher != null) {
+                //wait for the reporters to catch up and propagate their failures
+                reportDispatcher.close();
+            }
+        } finally {
+            if (reportDispatcher != null) {
+                closeAll(Collections.singleton(reportDispatcher), "report dispatcher");
+                reportDispatcher = null;
+            }
         }
     }
 
@@ -381,8 +847,52 @@ public final class Revapi {
         }
     }
 
-    private void analyzeWith(ApiAnalyzer apiAnalyzer, API oldApi, API newApi)
-        throws Exception {
+    private static long startTiming(@Nullable AnalysisMetrics metrics) {
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    private static void recordTime(@Nullable AnalysisMetrics metrics, String metric, Object subject, long startTime) {
+        if (metrics != null) {
+            metrics.recordTime(metric, subject.getClass().getName(), System.nanoTime() - startTime);
+        }
+    }
+
+    private static <T> SubmittedTask<T> submit(Executor executor, Callable<T> task) {
+        SubmittedTask<T> ret = new SubmittedTask<>(task);
+        try {
+            executor.execute(ret);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Executor rejected task " + task + ". It will be run in the analysis thread.", e);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Waits for the task submitted using {@link #submit(Executor, Callable)} to finish. If the executor hasn't started
+     * the task yet, it is run in the current thread, which means we can never deadlock on the executor not having
+     * enough threads.
+     */
+    private static <T> T join(SubmittedTask<T> task) throws Exception {
+        task.run();
+
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw e;
+            }
+        }
+    }
+
+    private void analyzeWith(ApiAnalyzer apiAnalyzer, AnalysisContext analysisContext) throws Exception {
+        API oldApi = analysisContext.getOldApi();
+        API newApi = analysisContext.getNewApi();
 
         if (LOG.isDebugEnabled()) {
             LOG.debug("Starting analysis using " + apiAnalyzer + " on:\nOld API:\n" + oldApi + "\n\nNew API:\n"
@@ -392,10 +902,54 @@ public final class Revapi {
         ArchiveAnalyzer oldAnalyzer = apiAnalyzer.getArchiveAnalyzer(oldApi);
         ArchiveAnalyzer newAnalyzer = apiAnalyzer.getArchiveAnalyzer(newApi);
 
-        ElementForest oldTree = oldAnalyzer.analyze();
-        ElementForest newTree = newAnalyzer.analyze();
+        String oldSubject = apiAnalyzer.getClass().getName() + ":old";
+        String newSubject = apiAnalyzer.getClass().getName() + ":new";
+
+        try {
+            ElementForest[] trees = analyzeArchives(analysisContext.getExecutor(), oldAnalyzer, oldSubject,
+                newAnalyzer, newSubject);
+
+            compareForests(apiAnalyzer, analysisContext, oldAnalyzer, trees[0], oldSubject, newAnalyzer, trees[1],
+                newSubject);
+        } finally {
+            //the reporters may still be processing the elements produced by the archive analyzers
+            awaitReporters();
+            closeAll(Arrays.asList(oldAnalyzer, newAnalyzer), "archive analyzer");
+        }
+    }
+
+    /**
+     * Analyzes the two archives, concurrently if an executor is provided.
+     *
+     * @return the element forests of the old and new archives, in that order
+     */
+    private ElementForest[] analyzeArchives(@Nullable Executor executor, ArchiveAnalyzer oldAnalyzer,
+        String oldSubject, ArchiveAnalyzer newAnalyzer, String newSubject) throws Exception {
+
+        if (executor == null) {
+            return new ElementForest[]{analyzeArchive(oldAnalyzer, oldSubject),
+                analyzeArchive(newAnalyzer, newSubject)};
+        }
+
+        SubmittedTask<ElementForest> oldAnalysis = submit(executor, () -> analyzeArchive(oldAnalyzer, oldSubject));
+
+        ElementForest newTree;
+        try {
+            newTree = analyzeArchive(newAnalyzer, newSubject);
+        } catch (RuntimeException | Error e) {
+            //the archive analyzers are closed once we return, so the old archives must no longer be analyzed by then
+            oldAnalysis.cancelOrAwait();
+            throw e;
+        }
+
+        return new ElementForest[]{join(oldAnalysis), newTree};
+    }
+
+    private void compareForests(ApiAnalyzer apiAnalyzer, AnalysisContext analysisContext,
+        ArchiveAnalyzer oldAnalyzer, ElementForest oldTree, String oldSubject, ArchiveAnalyzer newAnalyzer,
+        ElementForest newTree, String newSubject) throws Exception {
 
-        DifferenceAnalyzer elementDifferenceAnalyzer = apiAnalyzer.getDifferenceAnalyzer(oldAnalyzer, newAnalyzer);
+        ForkJoinPool traversalPool = analysisContext.getTraversalPool();
 
         SortedSet<? extends Element> as = oldTree.getRoots();
         SortedSet<? extends Element> bs = newTree.getRoots();
@@ -405,111 +959,437 @@ public final class Revapi {
             LOG.debug("New tree: {}", newTree);
         }
 
-        elementDifferenceAnalyzer.open();
-        analyze(elementDifferenceAnalyzer, as, bs);
-        elementDifferenceAnalyzer.close();
+        long time = startTiming(metrics);
+
+        DifferenceAnalyzer parallelAnalyzer = traversalPool == null ? null :
+            apiAnalyzer.getParallelDifferenceAnalyzer(oldAnalyzer, newAnalyzer);
+
+        if (parallelAnalyzer == null) {
+            DifferenceAnalyzer elementDifferenceAnalyzer = apiAnalyzer.getDifferenceAnalyzer(oldAnalyzer, newAnalyzer);
+
+            elementDifferenceAnalyzer.open();
+            try {
+                analyze(elementDifferenceAnalyzer, as, bs, this::transformAndReport);
+            } finally {
+                elementDifferenceAnalyzer.close();
+            }
+        } else {
+            LOG.debug("Comparing the element forests in parallel");
+            analyzeInParallel(traversalPool, new ParallelAnalyzers(apiAnalyzer, oldAnalyzer, newAnalyzer,
+                parallelAnalyzer), as, bs);
+        }
+
+        recordTime(metrics, AnalysisMetrics.FOREST_COMPARISON, apiAnalyzer, time);
+
+        if (metrics != null) {
+            //only count now so that the comparison isn't skewed by the elements being initialized upfront
+            metrics.recordCount(AnalysisMetrics.FOREST_ELEMENTS, oldSubject, countElements(as));
+            metrics.recordCount(AnalysisMetrics.FOREST_ELEMENTS, newSubject, countElements(bs));
+        }
+    }
+
+    private ElementForest analyzeArchive(ArchiveAnalyzer archiveAnalyzer, String subject) {
+        long time = startTiming(metrics);
+
+        ElementForest ret = archiveAnalyzer.analyze();
+
+        if (metrics != null) {
+            metrics.recordTime(AnalysisMetrics.ARCHIVE_ANALYSIS, subject, System.nanoTime() - time);
+        }
+
+        return ret;
+    }
+
+    private static long countElements(SortedSet<? extends Element> elements) {
+        long ret = elements.size();
+        for (Element e : elements) {
+            ret += countElements(e.getChildren());
+        }
+
+        return ret;
     }
 
     private void analyze(DifferenceAnalyzer elementDifferenceAnalyzer,
-        SortedSet<? extends Element> as, SortedSet<? extends Element> bs) {
+        SortedSet<? extends Element> as, SortedSet<? extends Element> bs, Consumer<Report> reportSink) {
 
-        CoIterator<Element> it = new CoIterator<>(as.iterator(), bs.iterator(),
-            elementDifferenceAnalyzer.getCorrespondenceComparator());
+        pairUp(elementDifferenceAnalyzer, as, bs, (a, b) -> analyze(elementDifferenceAnalyzer, a, b, reportSink));
+    }
 
-        while (it.hasNext()) {
-            it.next();
+    /**
+     * Pairs up the corresponding elements of the two sorted sets, passing null for the elements that have no
+     * counterpart in the other set. The elements are paired by their correspondence keys if the sets are large enough
+     * for the hash join to pay off and the analyzer provides the keys. Otherwise the sets are merge joined using the
+     * correspondence comparator. Either way, the pairs are passed to the action in the same order.
+     */
+    @SuppressWarnings("unchecked")
+    private static void pairUp(DifferenceAnalyzer analyzer, SortedSet<? extends Element> as,
+        SortedSet<? extends Element> bs, BiConsumer<Element, Element> action) {
 
-            Element a = it.getLeft();
-            Element b = it.getRight();
+        Comparator<? super Element> comparator = analyzer.getCorrespondenceComparator();
 
-            boolean analyzeThis =
-                (a == null || availableFilters.applies(a)) && (b == null || availableFilters.applies(b));
+        //the hash join needs to access the elements by index, so the sets that are not frozen are copied for it. The
+        //copying is cheap compared to hashing the keys of all the elements, which the hash join does anyway.
+        if (as.size() + bs.size() >= HASH_JOIN_THRESHOLD
+            && hashJoin(analyzer, SortedArraySet.of(as), SortedArraySet.of(bs), comparator, action)) {
+            return;
+        }
 
-            if (analyzeThis) {
-                elementDifferenceAnalyzer.beginAnalysis(a, b);
+        if (as instanceof SortedArraySet && bs instanceof SortedArraySet) {
+            mergeJoin((SortedArraySet<Element>) as, (SortedArraySet<Element>) bs, comparator, action);
+        } else {
+            CoIterator<Element> it = new CoIterator<>(as.iterator(), bs.iterator(), comparator);
+            while (it.hasNext()) {
+                it.next();
+                action.accept(it.getLeft(), it.getRight());
             }
+        }
+    }
 
-            if (a != null && b != null && availableFilters.shouldDescendInto(a) &&
-                availableFilters.shouldDescendInto(b)) {
+    /**
+     * Walks the two frozen sorted sets in parallel. This is equivalent to walking the sets using a {@link CoIterator},
+     * but the sets are walked by index without allocating any iterators.
+     */
+    private static void mergeJoin(SortedArraySet<Element> olds, SortedArraySet<Element> news,
+        Comparator<? super Element> comparator, BiConsumer<Element, Element> action) {
+
+        int oldSize = olds.size();
+        int newSize = news.size();
+        int i = 0;
+        int j = 0;
+
+        while (i < oldSize && j < newSize) {
+            Element a = olds.get(i);
+            Element b = news.get(j);
+
+            int order = comparator.compare(a, b);
+            if (order < 0) {
+                action.accept(a, null);
+                ++i;
+            } else if (order > 0) {
+                action.accept(null, b);
+                ++j;
+            } else {
+                action.accept(a, b);
+                ++i;
+                ++j;
+            }
+        }
 
-                analyze(elementDifferenceAnalyzer, a.getChildren(), b.getChildren());
+        for (; i < oldSize; ++i) {
+            action.accept(olds.get(i), null);
+        }
+
+        for (; j < newSize; ++j) {
+            action.accept(null, news.get(j));
+        }
+    }
+
+    /**
+     * Pairs up the elements with equal correspondence keys. If there are several elements with the same key, they are
+     * paired up in their order, the same way the merge join pairs up the elements the comparator pronounces equal. The
+     * comparator is only used to interleave the elements without a counterpart that lie between two paired elements.
+     *
+     * @return false if the analyzer didn't provide a key for some element, in which case nothing was passed to the
+     * action
+     */
+    private static boolean hashJoin(DifferenceAnalyzer analyzer, SortedArraySet<Element> olds,
+        SortedArraySet<Element> news, Comparator<? super Element> comparator, BiConsumer<Element, Element> action) {
+
+        int oldSize = olds.size();
+        int newSize = news.size();
+
+        //the index of the first new element with given key. The rest of the new elements with the same key are
+        //chained in nextWithSameKey.
+        Map<Object, Integer> firstWithKey = new HashMap<>(newSize * 4 / 3 + 1);
+        int[] nextWithSameKey = new int[newSize];
+        for (int j = newSize - 1; j >= 0; --j) {
+            Object key = analyzer.getCorrespondenceKey(news.get(j));
+            if (key == null) {
+                return false;
+            }
+
+            Integer next = firstWithKey.put(key, j);
+            nextWithSameKey[j] = next == null ? -1 : next;
+        }
+
+        int[] partners = new int[oldSize];
+        boolean[] paired = new boolean[newSize];
+        for (int i = 0; i < oldSize; ++i) {
+            Object key = analyzer.getCorrespondenceKey(olds.get(i));
+            if (key == null) {
+                return false;
+            }
+
+            Integer j = firstWithKey.get(key);
+            if (j == null) {
+                partners[i] = -1;
+            } else {
+                partners[i] = j;
+                paired[j] = true;
+                if (nextWithSameKey[j] < 0) {
+                    firstWithKey.remove(key);
+                } else {
+                    firstWithKey.put(key, nextWithSameKey[j]);
+                }
             }
+        }
 
-            if (analyzeThis) {
-                transformAndReport(elementDifferenceAnalyzer.endAnalysis(a, b));
+        int unpairedOlds = 0;
+        int unpairedNews = 0;
+        for (int i = 0; i < oldSize; ++i) {
+            int j = partners[i];
+            if (j < 0) {
+                continue;
             }
+
+            //the new elements before the partner that haven't been passed to the action yet are either unpaired or
+            //paired with some later old element (if the keys don't agree with the order of the elements)
+            int end = Math.max(j, unpairedNews);
+            mergeUnpaired(olds, unpairedOlds, i, news, unpairedNews, end, paired, comparator, action);
+
+            action.accept(olds.get(i), news.get(j));
+
+            unpairedOlds = i + 1;
+            unpairedNews = Math.max(j + 1, unpairedNews);
         }
+
+        mergeUnpaired(olds, unpairedOlds, oldSize, news, unpairedNews, newSize, paired, comparator, action);
+
+        return true;
     }
 
-    private void transformAndReport(Report report) {
-        if (report == null) {
-            return;
+    private static void mergeUnpaired(SortedArraySet<Element> olds, int oldFrom, int oldTo,
+        SortedArraySet<Element> news, int newFrom, int newTo, boolean[] paired, Comparator<? super Element> comparator,
+        BiConsumer<Element, Element> action) {
+
+        int i = oldFrom;
+        int j = newFrom;
+
+        while (i < oldTo && j < newTo) {
+            if (paired[j]) {
+                ++j;
+                continue;
+            }
+
+            Element a = olds.get(i);
+            Element b = news.get(j);
+
+            if (comparator.compare(a, b) <= 0) {
+                action.accept(a, null);
+                ++i;
+            } else {
+                action.accept(null, b);
+                ++j;
+            }
         }
 
-        int iteration = 0;
-        boolean changed;
-        do {
-            changed = false;
+        for (; i < oldTo; ++i) {
+            action.accept(olds.get(i), null);
+        }
 
-            ListIterator<Difference> it = report.getDifferences().listIterator();
-            while (it.hasNext()) {
-                Difference d = it.next();
-                for (DifferenceTransform<?> t : getTransformsForDifference(d)) {
-                    // it is the responsibility of the transform to declare the proper type.
-                    // it will get a ClassCastException if it fails to declare a type that is common to all differences
-                    // it can handle
-                    @SuppressWarnings("unchecked")
-                    DifferenceTransform<Element> tt = (DifferenceTransform<Element>) t;
-
-                    Difference td = d;
-                    try {
-                        td = tt.transform(report.getOldElement(), report.getNewElement(), d);
-                    } catch (Exception e) {
-                        LOG.warn("Difference transform " + t + " of class '" + t.getClass() + " threw an exception" +
-                            " while processing difference " + d + " on old element " + report.getOldElement() + " and" +
-                            " new element " + report.getNewElement(), e);
-                    }
+        for (; j < newTo; ++j) {
+            if (!paired[j]) {
+                action.accept(null, news.get(j));
+            }
+        }
+    }
 
-                    // ignore if transformation returned null, meaning that it "swallowed" the difference..
-                    // once the changes are done, we'll loop through once more and remove the differences that the
-                    // transforms want removed.
-                    // This prevents 1 transformation from disallowing other transformation to do what it needs
-                    // if both apply to the same difference.
-                    if (td != null && td != d) { //yes, reference equality is OK here
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug("Difference transform {} transforms {} to {}", t.getClass(), d, td);
-                        }
-                        it.set(td);
-                        changed = true;
+    private void analyze(DifferenceAnalyzer elementDifferenceAnalyzer, @Nullable Element a, @Nullable Element b,
+        Consumer<Report> reportSink) {
+
+        boolean analyzeThis =
+            (a == null || availableFilters.applies(a)) && (b == null || availableFilters.applies(b));
+
+        if (analyzeThis) {
+            elementDifferenceAnalyzer.beginAnalysis(a, b);
+        }
+
+        if (a != null && b != null && availableFilters.shouldDescendInto(a) &&
+            availableFilters.shouldDescendInto(b)) {
+
+            analyze(elementDifferenceAnalyzer, a.getChildren(), b.getChildren(), reportSink);
+        }
+
+        if (analyzeThis) {
+            reportSink.accept(elementDifferenceAnalyzer.endAnalysis(a, b));
+        }
+    }
+
+    private void analyzeInParallel(ForkJoinPool pool, ParallelAnalyzers analyzers, SortedSet<? extends Element> as,
+        SortedSet<? extends Element> bs) throws Exception {
+
+        //pair up the roots first so that we can split them into evenly sized chunks, each compared on its own
+        List<Element> olds = new ArrayList<>();
+        List<Element> news = new ArrayList<>();
+
+        pairUp(analyzers.first, as, bs, (a, b) -> {
+            olds.add(a);
+            news.add(b);
+        });
+
+        //several chunks per thread so that the threads don't idle when some of the subtrees are much larger than
+        //others
+        int chunkSize = Math.max(1, olds.size() / (pool.getParallelism() * 8));
+
+        //the reports of a chunk are passed on as soon as all the chunks before it are done, so that they come in the
+        //same order as they would have been produced by the serial analysis. Only a limited number of chunks is
+        //compared ahead of the oldest unfinished one so that the reports waiting for it don't pile up.
+        int maxPendingChunks = pool.getParallelism() * 4;
+        Deque<SubtreeComparison> pending = new ArrayDeque<>(maxPendingChunks);
+        int next = 0;
+        try {
+            while (next < olds.size() || !pending.isEmpty()) {
+                while (next < olds.size() && pending.size() < maxPendingChunks) {
+                    int to = Math.min(olds.size(), next + chunkSize);
+                    SubtreeComparison chunk = new SubtreeComparison(analyzers, olds, news, next, to);
+                    pool.execute(chunk);
+                    pending.add(chunk);
+                    next = to;
+                }
+
+                for (Report r : pending.poll().join()) {
+                    synchronized (reportingLock) {
+                        report(r);
                     }
                 }
             }
+        } finally {
+            //if some chunk failed, don't close the analyzers while the others are still using them
+            for (SubtreeComparison chunk : pending) {
+                chunk.cancel(false);
+                chunk.quietlyJoin();
+            }
 
-            iteration++;
+            analyzers.close();
+        }
+    }
 
-            if (iteration % 100 == 0) {
-                LOG.warn("Transformation of differences in match report " + report + " has cycled " + iteration +
-                    " times. Maybe we're in an infinite loop with differences transforming back and forth?");
+    private void transformAndReport(Report report) {
+        if (report == null) {
+            return;
+        }
+
+        //the transforms and reporters are not required to be thread-safe, so let's serialize the calls to them
+        //in case the API analyzers run concurrently
+        synchronized (reportingLock) {
+            transform(report);
+
+            if (!report.getDifferences().isEmpty()) {
+                report(report);
             }
-        } while (changed);
+        }
+    }
+
+    /**
+     * Waits for the reporters to process the reports passed to them so far, if they process them asynchronously.
+     */
+    private void awaitReporters() {
+        ReportDispatcher dispatcher = reportDispatcher;
+        if (dispatcher != null) {
+            dispatcher.flush();
+        }
+    }
+
+    /**
+     * Passes the report to the reporters. Must be called while holding the {@link #reportingLock}.
+     */
+    private void report(Report report) {
+        if (reportDispatcher != null) {
+            reportDispatcher.dispatch(report);
+        } else {
+            for (Reporter reporter : availableReporters) {
+                long time = startTiming(metrics);
+                reporter.report(report);
+                recordTime(metrics, AnalysisMetrics.REPORTER, reporter, time);
+            }
+        }
+    }
+
+    private void transform(Report report) {
+        int produced = report.getDifferences().size();
 
-        //now remove the differences that the transforms want removed
         ListIterator<Difference> it = report.getDifferences().listIterator();
         while (it.hasNext()) {
             Difference d = it.next();
-            for (DifferenceTransform<?> t : getTransformsForDifference(d)) {
+            Difference td = transform(report, d);
+
+            if (td == null) {
+                it.remove();
+            } else if (td != d) {
+                it.set(td);
+            }
+        }
+
+        if (metrics != null && produced > 0) {
+            metrics.recordCount(AnalysisMetrics.DIFFERENCES_PRODUCED, null, produced);
+            metrics.recordCount(AnalysisMetrics.DIFFERENCES_REMOVED, null,
+                produced - report.getDifferences().size());
+        }
+    }
+
+    /**
+     * Passes the difference through the transforms as described in {@link DifferenceTransform}.
+     *
+     * @return the transformed difference or null if it should be discarded
+     */
+    @Nullable
+    private Difference transform(Report report, Difference difference) {
+        int iteration = 0;
+        while (true) {
+            String code = difference.code;
+            boolean discard = false;
+            boolean again = false;
+
+            for (DifferenceTransform<?> t : getTransformsForDifference(difference)) {
+                // it is the responsibility of the transform to declare the proper type.
+                // it will get a ClassCastException if it fails to declare a type that is common to all differences
+                // it can handle
                 @SuppressWarnings("unchecked")
                 DifferenceTransform<Element> tt = (DifferenceTransform<Element>) t;
-                Difference td = tt.transform(report.getOldElement(), report.getNewElement(), d);
+
+                Difference td = difference;
+                long time = startTiming(metrics);
+                try {
+                    td = tt.transform(report.getOldElement(), report.getNewElement(), difference);
+                } catch (Exception e) {
+                    LOG.warn("Difference transform " + t + " of class '" + t.getClass() + " threw an exception" +
+                        " while processing difference " + difference + " on old element " + report.getOldElement() +
+                        " and new element " + report.getNewElement(), e);
+                }
+
+                recordTime(metrics, AnalysisMetrics.TRANSFORM, t, time);
+
                 if (td == null) {
-                    it.remove();
+                    // we still let the rest of the transforms see the difference, because if any of them changes
+                    // its code, it's up to the transforms of the new code to decide whether to discard it. The
+                    // decision is therefore reset below when the code changes, no matter which transform came first.
+                    discard = true;
+                } else if (td != difference) { //yes, reference equality is OK here
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Difference transform {} transforms {} to {}", t.getClass(), difference, td);
+                    }
+
+                    difference = td;
+
+                    if (!code.equals(difference.code)) {
+                        again = true;
+                        break;
+                    }
+
+                    again |= t.requiresFixpoint();
                 }
             }
-        }
 
-        if (!report.getDifferences().isEmpty()) {
-            for (Reporter reporter : availableReporters) {
-                reporter.report(report);
+            if (!again) {
+                return discard ? null : difference;
+            }
+
+            iteration++;
+
+            if (iteration % 100 == 0) {
+                LOG.warn("Transformation of difference " + difference + " in match report " + report + " has" +
+                    " cycled " + iteration + " times. Maybe we're in an infinite loop with differences transforming" +
+                    " back and forth?");
             }
         }
     }
@@ -42,6 +42,7 @@ import org.revapi.query.FilteringIterator;
 public abstract class SimpleElement implements Element {
     private Element parent;
     private SortedSet<Element> children;
+    private SimpleElementForest forest;
 
     private static class EmptyIterator<E> implements Iterator<E> {
 
@@ -73,6 +74,10 @@ public abstract class SimpleElement implements Element {
             boolean ret = set.add(element);
             if (ret) {
                 element.setParent(SimpleElement.this);
+                if (element instanceof SimpleElement) {
+                    ((SimpleElement) element).setForest(forest);
+                }
+                childrenChanged();
             }
 
             return ret;
@@ -91,9 +96,13 @@ public abstract class SimpleElement implements Element {
         public void clear() {
             for (Element e : this) {
                 e.setParent(null);
+                if (e instanceof SimpleElement) {
+                    ((SimpleElement) e).setForest(null);
+                }
             }
 
             set.clear();
+            childrenChanged();
         }
 
         @Override
@@ -231,9 +240,13 @@ public abstract class SimpleElement implements Element {
             public void remove() {
                 if (last != null) {
                     last.setParent(null);
+                    if (last instanceof SimpleElement) {
+                        ((SimpleElement) last).setForest(null);
+                    }
                 }
 
                 it.remove();
+                childrenChanged();
             }
         }
     }
@@ -253,6 +266,84 @@ public abstract class SimpleElement implements Element {
         return children;
     }
 
+    /**
+     * Freezes the children of this element and, recursively, of all its descendants that are simple elements. The
+     * children are then kept in an immutable array-backed {@link SortedArraySet} which is both more compact and
+     * faster to walk than the default {@link java.util.TreeSet}.
+     *
+     * <p>This should only be called once the element forest is complete, because any attempt to modify the children
+     * afterwards fails with an {@link UnsupportedOperationException}.
+     *
+     * @since 0.4
+     */
+    public void freeze() {
+        freezeChildren();
+
+        for (Element e : children) {
+            if (e instanceof SimpleElement) {
+                ((SimpleElement) e).freeze();
+            }
+        }
+    }
+
+    /**
+     * Freezes just the children of this element, leaving the descendants untouched. This is intended for the
+     * subclasses that initialize their children lazily and can therefore freeze them as soon as they are complete.
+     *
+     * @see #freeze()
+     * @since 0.4
+     */
+    protected final void freezeChildren() {
+        if (children == null) {
+            children = new ParentPreservingSet(newChildrenInstance());
+        }
+
+        if (!(children instanceof SortedArraySet)) {
+            children = SortedArraySet.of(children);
+        }
+    }
+
+    /**
+     * Links this element and all its descendants to the forest. This is done by the {@link SimpleElementForest} for its
+     * roots and by the elements for their children, so that each element knows its forest without looking up its root.
+     *
+     * @param forest the forest this element belongs to or null if it doesn't belong to any
+     */
+    void setForest(@Nullable SimpleElementForest forest) {
+        if (this.forest == forest) {
+            //the descendants are always linked to the same forest as their ancestors
+            return;
+        }
+
+        this.forest = forest;
+
+        //don't use getChildren(), the subclasses might initialize the children in it
+        if (children != null) {
+            for (Element e : children) {
+                if (e instanceof SimpleElement) {
+                    ((SimpleElement) e).setForest(forest);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lets the forest this element belongs to know that its children changed, so that it can drop its index if
+     * necessary. The elements that are not yet part of any forest don't notify anybody.
+     */
+    private void childrenChanged() {
+        if (forest != null) {
+            forest.childrenChanged(this);
+        }
+    }
+
+    /**
+     * Used by the {@link SimpleElementForest} to replace the children with a view of the forest-wide storage.
+     */
+    void setFrozenChildren(SortedArraySet<Element> children) {
+        this.children = children;
+    }
+
     /**
      * Override this method if you need some specialized instance of sorted set or want to do some custom pre-populating
      * or initialization of the children. This default implementation merely returns an empty new
@@ -16,8 +16,15 @@
 
 package org.revapi.simple;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -36,8 +43,15 @@ import org.revapi.query.Filter;
  * @since 0.1
  */
 public class SimpleElementForest implements ElementForest {
+    private static final int CHILDREN_CHUNK_LENGTH = 4096;
+
     private SortedSet<? extends SimpleElement> roots;
     private final API api;
+    private volatile Index index;
+
+    //the storage of the children frozen one element at a time, see freezeChildren(SimpleElement)
+    private Object[] childrenChunk;
+    private int childrenChunkSize;
 
     protected SimpleElementForest(@Nonnull API api) {
         this.api = api;
@@ -53,11 +67,295 @@ public class SimpleElementForest implements ElementForest {
     @Nonnull
     public SortedSet<? extends SimpleElement> getRoots() {
         if (roots == null) {
-            roots = new TreeSet<>();
+            roots = new RootSet();
         }
         return roots;
     }
 
+    /**
+     * Freezes the roots of this forest and all the elements in it. This should only be called once the forest is
+     * complete, because it can no longer be modified afterwards.
+     *
+     * <p>Unlike {@link SimpleElement#freeze()} which gives each element an array of its own, this lays out all the
+     * elements of the forest in a single array, level by level, so that the children of each element occupy a
+     * contiguous range of it. The roots and the children of the elements then become mere views of that array. This
+     * both saves memory and keeps the siblings close together while walking the forest.
+     *
+     * <p>The children of elements that are not simple elements are left as they are.
+     *
+     * @since 0.4
+     */
+    public void freeze() {
+        if (roots == null) {
+            roots = new RootSet();
+        }
+
+        Object[] layout = new Object[Math.max(16, roots.size() * 2)];
+        int size = 0;
+
+        for (SimpleElement e : roots) {
+            layout[size++] = e;
+        }
+
+        int rootCount = size;
+
+        //the ranges of the children of the element at the same index in the layout
+        int[] childrenStarts = new int[layout.length];
+        int[] childrenEnds = new int[layout.length];
+
+        for (int i = 0; i < size; ++i) {
+            if (!(layout[i] instanceof SimpleElement)) {
+                continue;
+            }
+
+            SortedSet<? extends Element> children = ((SimpleElement) layout[i]).getChildren();
+
+            if (size + children.size() > layout.length) {
+                int newLength = Math.max(layout.length * 2, size + children.size());
+                layout = Arrays.copyOf(layout, newLength);
+                childrenStarts = Arrays.copyOf(childrenStarts, newLength);
+                childrenEnds = Arrays.copyOf(childrenEnds, newLength);
+            }
+
+            childrenStarts[i] = size;
+            for (Element c : children) {
+                layout[size++] = c;
+            }
+            childrenEnds[i] = size;
+        }
+
+        if (size < layout.length) {
+            layout = Arrays.copyOf(layout, size);
+        }
+
+        //the layout is final now, so we can create the views
+        for (int i = 0; i < size; ++i) {
+            if (layout[i] instanceof SimpleElement) {
+                SimpleElement e = (SimpleElement) layout[i];
+
+                @SuppressWarnings("unchecked")
+                Comparator<? super Element> comparator =
+                    (Comparator<? super Element>) e.getChildren().comparator();
+
+                e.setFrozenChildren(SortedArraySet.view(layout, childrenStarts[i], childrenEnds[i], comparator));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        Comparator<? super SimpleElement> comparator = (Comparator<? super SimpleElement>) roots.comparator();
+
+        roots = SortedArraySet.view(layout, 0, rootCount, comparator);
+    }
+
+    /**
+     * Freezes just the set of the roots of this forest, leaving the elements themselves untouched.
+     *
+     * @see #freeze()
+     * @since 0.4
+     */
+    protected final void freezeRoots() {
+        if (roots == null) {
+            roots = new RootSet();
+        }
+
+        if (!(roots instanceof SortedArraySet)) {
+            roots = SortedArraySet.of(roots);
+        }
+    }
+
+    /**
+     * Freezes the children of the provided element, leaving its descendants untouched. This is the counterpart of
+     * {@link #freeze()} for the forests whose elements initialize their children lazily and can therefore only freeze
+     * them one element at a time, as soon as they are complete.
+     *
+     * <p>Unlike {@link SimpleElement#freeze()}, the children are not given an array of their own. They are appended to
+     * a chunk of storage shared by all the elements of this forest frozen this way and the children of the element
+     * become a view of that chunk. This saves the header and the slack of a separate array for each element.
+     *
+     * @param element the element of this forest to freeze the children of
+     *
+     * @since 0.4
+     */
+    protected final void freezeChildren(@Nonnull SimpleElement element) {
+        SortedSet<? extends Element> children = element.getChildren();
+        if (children instanceof SortedArraySet) {
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Comparator<? super Element> comparator = (Comparator<? super Element>) children.comparator();
+
+        int size = children.size();
+
+        Object[] chunk;
+        int from;
+        synchronized (this) {
+            if (size > CHILDREN_CHUNK_LENGTH / 4) {
+                //don't waste the rest of the current chunk on the rare elements with a lot of children
+                chunk = new Object[size];
+                from = 0;
+            } else {
+                if (childrenChunk == null || childrenChunkSize + size > childrenChunk.length) {
+                    childrenChunk = new Object[CHILDREN_CHUNK_LENGTH];
+                    childrenChunkSize = 0;
+                }
+                chunk = childrenChunk;
+                from = childrenChunkSize;
+                childrenChunkSize += size;
+            }
+        }
+
+        int i = from;
+        for (Element c : children) {
+            chunk[i++] = c;
+        }
+
+        element.setFrozenChildren(SortedArraySet.view(chunk, from, from + size, comparator));
+    }
+
+    /**
+     * Looks up all the elements of given type in the indexed part of the forest (see
+     * {@link #shouldIndexChildrenOf(Element)}).
+     *
+     * <p>This is served from an index that is built on the first such lookup, so that it only costs as much as there
+     * are distinct element classes and matching elements. The index is kept until the indexed part of the forest
+     * changes, i.e. until a root is added or removed or the children of an indexed simple element change.
+     *
+     * <p>The elements of the same class are returned in the depth-first order, the order between the elements of
+     * different classes is undefined.
+     *
+     * @param resultType the type of the elements to look up
+     * @param <T>        the type of the elements to look up
+     * @return the list of the elements of given type, never null
+     *
+     * @since 0.4
+     */
+    @Nonnull
+    public <T extends Element> List<T> searchByType(@Nonnull Class<T> resultType) {
+        List<T> results = new ArrayList<>();
+
+        for (Map.Entry<Class<?>, List<Element>> e : getIndex().byClass.entrySet()) {
+            if (resultType.isAssignableFrom(e.getKey())) {
+                @SuppressWarnings("unchecked")
+                List<T> elements = (List<T>) e.getValue();
+                results.addAll(elements);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Looks up the element with the given key (see {@link #getIndexKey(Element)}) in the indexed part of the forest.
+     * If there are more elements with the same key, the first one in the depth-first order is returned.
+     *
+     * <p>Like {@link #searchByType(Class)} this uses an index that is kept until the indexed part of the forest
+     * changes.
+     *
+     * @param resultType the expected type of the element
+     * @param key        the key of the element
+     * @param <T>        the expected type of the element
+     * @return the element with the given key or null if there is no such element or it is not of the expected type
+     *
+     * @since 0.4
+     */
+    @Nullable
+    public <T extends Element> T searchByKey(@Nonnull Class<T> resultType, @Nonnull String key) {
+        Element ret = getIndex().byKey.get(key);
+
+        return resultType.isInstance(ret) ? resultType.cast(ret) : null;
+    }
+
+    /**
+     * Subclasses can override this to provide a unique key of some of the elements, by which they can then be looked
+     * up using {@link #searchByKey(Class, String)}. This default implementation returns null, meaning that no element
+     * has a key.
+     *
+     * @param element the element to return the key of
+     * @return the key of the element or null if the element should not be looked up by a key
+     *
+     * @since 0.4
+     */
+    @Nullable
+    protected String getIndexKey(@Nonnull Element element) {
+        return null;
+    }
+
+    /**
+     * Subclasses can override this to limit the indexed part of the forest, e.g. if the lookups are only ever made for
+     * elements at certain positions in the forest. This default implementation returns true, so the whole forest is
+     * indexed.
+     *
+     * @param element the element which is already indexed
+     * @return true if the children of the element should be indexed, too, false otherwise
+     *
+     * @since 0.4
+     */
+    protected boolean shouldIndexChildrenOf(@Nonnull Element element) {
+        return true;
+    }
+
+    /**
+     * Called by the elements of this forest when their children change.
+     *
+     * @param parent the element the children of which changed
+     */
+    void childrenChanged(@Nonnull Element parent) {
+        if (index == null) {
+            return;
+        }
+
+        //only drop the index if the children are in the indexed part of the forest
+        for (Element e = parent; e != null; e = e.getParent()) {
+            if (!shouldIndexChildrenOf(e)) {
+                return;
+            }
+        }
+
+        index = null;
+    }
+
+    private Index getIndex() {
+        Index ret = index;
+        if (ret == null) {
+            synchronized (this) {
+                ret = index;
+                if (ret == null) {
+                    ret = buildIndex();
+                    index = ret;
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private Index buildIndex() {
+        Index ret = new Index();
+        addToIndex(ret, getRoots());
+        return ret;
+    }
+
+    private void addToIndex(Index index, SortedSet<? extends Element> elements) {
+        for (Element e : elements) {
+            List<Element> elementsOfClass = index.byClass.get(e.getClass());
+            if (elementsOfClass == null) {
+                elementsOfClass = new ArrayList<>();
+                index.byClass.put(e.getClass(), elementsOfClass);
+            }
+            elementsOfClass.add(e);
+
+            String key = getIndexKey(e);
+            if (key != null && !index.byKey.containsKey(key)) {
+                index.byKey.put(key, e);
+            }
+
+            if (shouldIndexChildrenOf(e)) {
+                addToIndex(index, e.getChildren());
+            }
+        }
+    }
+
     @Override
     @Nonnull
     public <T extends Element> List<T> search(@Nonnull Class<T> resultType, boolean recurse,
@@ -97,6 +395,130 @@ public class SimpleElementForest implements ElementForest {
         return bld.toString();
     }
 
+    private static final class Index {
+        final Map<Class<?>, List<Element>> byClass = new HashMap<>();
+        final Map<String, Element> byKey = new HashMap<>();
+    }
+
+    /**
+     * The set of the roots of the forest until it is frozen. It links the roots and their descendants to the forest, so
+     * that the changes of their children can reach it, and drops the index of the forest whenever it changes itself.
+     */
+    private final class RootSet extends AbstractSet<SimpleElement> implements SortedSet<SimpleElement> {
+        private final TreeSet<SimpleElement> set = new TreeSet<>();
+
+        @Override
+        public boolean add(SimpleElement element) {
+            boolean ret = set.add(element);
+            if (ret) {
+                element.setForest(SimpleElementForest.this);
+                index = null;
+            }
+
+            return ret;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof SimpleElement)) {
+                return false;
+            }
+
+            SimpleElement e = set.ceiling((SimpleElement) o);
+            if (e == null || e.compareTo((SimpleElement) o) != 0) {
+                return false;
+            }
+
+            set.remove(e);
+            e.setForest(null);
+            index = null;
+
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            for (SimpleElement e : set) {
+                e.setForest(null);
+            }
+
+            set.clear();
+            index = null;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return set.contains(o);
+        }
+
+        @Override
+        public int size() {
+            return set.size();
+        }
+
+        @Nonnull
+        @Override
+        public Iterator<SimpleElement> iterator() {
+            Iterator<SimpleElement> it = set.iterator();
+
+            return new Iterator<SimpleElement>() {
+                SimpleElement last;
+
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public SimpleElement next() {
+                    last = it.next();
+                    return last;
+                }
+
+                @Override
+                public void remove() {
+                    it.remove();
+                    last.setForest(null);
+                    index = null;
+                }
+            };
+        }
+
+        @Nullable
+        @Override
+        public Comparator<? super SimpleElement> comparator() {
+            return set.comparator();
+        }
+
+        @Nonnull
+        @Override
+        public SortedSet<SimpleElement> subSet(SimpleElement fromElement, SimpleElement toElement) {
+            return Collections.unmodifiableSortedSet(set.subSet(fromElement, toElement));
+        }
+
+        @Nonnull
+        @Override
+        public SortedSet<SimpleElement> headSet(SimpleElement toElement) {
+            return Collections.unmodifiableSortedSet(set.headSet(toElement));
+        }
+
+        @Nonnull
+        @Override
+        public SortedSet<SimpleElement> tailSet(SimpleElement fromElement) {
+            return Collections.unmodifiableSortedSet(set.tailSet(fromElement));
+        }
+
+        @Override
+        public SimpleElement first() {
+            return set.first();
+        }
+
+        @Override
+        public SimpleElement last() {
+            return set.last();
+        }
+    }
+
     private void addToString(StringBuilder bld, int indent, SortedSet<? extends Element> elements) {
         for (Element e : elements) {
             bld.append("\n");
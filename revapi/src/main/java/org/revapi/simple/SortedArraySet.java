@@ -0,0 +1,264 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.simple;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An immutable sorted set backed by an array. This is the representation of the children of the frozen elements (see
+ * {@link SimpleElement#freeze()}) and also of the roots of the frozen forests (see
+ * {@link SimpleElementForest#freeze()}).
+ *
+ * <p>Apart from being compact, the set provides an indexed access to its elements which makes it possible to walk
+ * two sets side by side without allocating any iterators.
+ *
+ * <p>All the methods that would modify the set throw {@link UnsupportedOperationException}.
+ *
+ * @author agent
+ * @since 0.4
+ */
+public final class SortedArraySet<E> extends AbstractSet<E> implements SortedSet<E> {
+    private static final Object[] EMPTY = new Object[0];
+    private static final SortedArraySet<?> EMPTY_NATURAL = new SortedArraySet<>(EMPTY, 0, 0, null);
+
+    private final Object[] elements;
+    private final int from;
+    private final int to;
+    private final Comparator<? super E> comparator;
+
+    private SortedArraySet(Object[] elements, int from, int to, @Nullable Comparator<? super E> comparator) {
+        this.elements = elements;
+        this.from = from;
+        this.to = to;
+        this.comparator = comparator;
+    }
+
+    /**
+     * Returns the provided set if it already is a sorted array set or a new sorted array set with the same elements
+     * and the same ordering as the provided set.
+     *
+     * @param set the set to get the array-backed equivalent of
+     * @param <E> the type of the elements
+     * @return a sorted array set with the elements of the provided set
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public static <E> SortedArraySet<E> of(@Nonnull SortedSet<? extends E> set) {
+        if (set instanceof SortedArraySet) {
+            //safe, because the set is immutable
+            return (SortedArraySet<E>) set;
+        }
+
+        Comparator<? super E> comparator = (Comparator<? super E>) set.comparator();
+
+        if (set.isEmpty()) {
+            return empty(comparator);
+        }
+
+        Object[] elements = set.toArray();
+
+        return new SortedArraySet<>(elements, 0, elements.length, comparator);
+    }
+
+    /**
+     * Creates a set over a range of a shared array. This is used by the frozen forests to store the children of all
+     * their elements in a single array.
+     *
+     * @param elements   the shared array, the range of which must be sorted according to the comparator
+     * @param from       the start index of the range (inclusive)
+     * @param to         the end index of the range (exclusive)
+     * @param comparator the comparator of the elements or null for natural ordering
+     */
+    static <E> SortedArraySet<E> view(Object[] elements, int from, int to, @Nullable Comparator<? super E> comparator) {
+        return from == to ? empty(comparator) : new SortedArraySet<>(elements, from, to, comparator);
+    }
+
+    /**
+     * Most of the elements in the forests are leaves, so let's not have an empty set instance for each of them.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> SortedArraySet<E> empty(@Nullable Comparator<? super E> comparator) {
+        return comparator == null ? (SortedArraySet<E>) EMPTY_NATURAL : new SortedArraySet<>(EMPTY, 0, 0, comparator);
+    }
+
+    /**
+     * @param index the index of the element, must be greater or equal to 0 and less than the {@link #size()}
+     * @return the element at given position in the ordering of this set
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= to - from) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + (to - from));
+        }
+
+        return (E) elements[from + index];
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return to == from;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o != null && search(o) >= 0;
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (next >= to) {
+                    throw new NoSuchElementException();
+                }
+
+                return (E) elements[next++];
+            }
+        };
+    }
+
+    @Nonnull
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOfRange(elements, from, to);
+    }
+
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(@Nonnull T[] a) {
+        int size = to - from;
+        if (a.length < size) {
+            return (T[]) Arrays.copyOfRange(elements, from, to, a.getClass());
+        }
+
+        System.arraycopy(elements, from, a, 0, size);
+        if (a.length > size) {
+            a[size] = null;
+        }
+
+        return a;
+    }
+
+    @Nullable
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @Nonnull
+    @Override
+    public SortedSet<E> subSet(E fromElement, E toElement) {
+        if (compare(fromElement, toElement) > 0) {
+            throw new IllegalArgumentException("fromElement > toElement");
+        }
+
+        return new SortedArraySet<>(elements, lowerBound(fromElement), lowerBound(toElement), comparator);
+    }
+
+    @Nonnull
+    @Override
+    public SortedSet<E> headSet(E toElement) {
+        return new SortedArraySet<>(elements, from, lowerBound(toElement), comparator);
+    }
+
+    @Nonnull
+    @Override
+    public SortedSet<E> tailSet(E fromElement) {
+        return new SortedArraySet<>(elements, lowerBound(fromElement), to, comparator);
+    }
+
+    @Override
+    public E first() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        return get(0);
+    }
+
+    @Override
+    public E last() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        return get(to - from - 1);
+    }
+
+    /**
+     * @return the index of the first element that is not less than the provided one
+     */
+    private int lowerBound(Object o) {
+        int idx = search(o);
+        return idx >= 0 ? idx : -idx - 1;
+    }
+
+    /**
+     * Same contract as {@link Arrays#binarySearch(Object[], int, int, Object, Comparator)}.
+     */
+    private int search(Object o) {
+        int low = from;
+        int high = to - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(elements[mid], o);
+
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object a, Object b) {
+        return comparator == null ? ((Comparable<Object>) a).compareTo(b) :
+            ((Comparator<Object>) comparator).compare(a, b);
+    }
+}
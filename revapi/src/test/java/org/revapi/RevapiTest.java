@@ -0,0 +1,912 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.revapi;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.revapi.simple.SimpleElement;
+import org.revapi.simple.SimpleElementForest;
+
+/**
+ * @author agent
+ * @since 0.4
+ */
+public class RevapiTest {
+    private static final API OLD_API = new API(Collections.<Archive>emptyList(), null);
+    private static final API NEW_API = new API(Collections.<Archive>emptyList(), null);
+
+    @Test
+    public void testParallelAnalysisReportsInSerialOrder() throws Exception {
+        DummyApiAnalyzer serialAnalyzer = new DummyApiAnalyzer("a", true);
+        List<String> serial = analyze(serialAnalyzer, null);
+
+        DummyApiAnalyzer parallelAnalyzer = new DummyApiAnalyzer("a", true);
+        List<String> parallel = analyze(parallelAnalyzer, new ForkJoinPool(4));
+
+        Assert.assertEquals(serial, parallel);
+        Assert.assertEquals(0, serialAnalyzer.parallelAnalyzers.get());
+        Assert.assertTrue(parallelAnalyzer.parallelAnalyzers.get() > 0);
+        Assert.assertEquals(0, parallelAnalyzer.openAnalyzers.get());
+    }
+
+    @Test
+    public void testParallelAnalysisReportsBeforeTheComparisonEnds() throws Exception {
+        DummyApiAnalyzer analyzer = new DummyApiAnalyzer("a", true);
+        CollectingReporter reporter = new CollectingReporter();
+        reporter.progress = analyzer.endedAnalyses::get;
+
+        Revapi revapi = Revapi.builder().withAnalyzers(analyzer).withReporters(reporter).build();
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            revapi.analyze(AnalysisContext.builder().withOldAPI(OLD_API).withNewAPI(NEW_API).withTraversalPool(pool)
+                .build());
+        } finally {
+            pool.shutdown();
+        }
+
+        Assert.assertTrue(reporter.progressAtFirstReport > 0);
+        Assert.assertTrue(reporter.progressAtFirstReport < analyzer.endedAnalyses.get());
+        Assert.assertEquals(analyze(new DummyApiAnalyzer("a", true), null), reporter.reports);
+    }
+
+    @Test
+    public void testParallelAnalysisFallsBackToSerial() throws Exception {
+        List<String> serial = analyze(new DummyApiAnalyzer("a", false), null);
+
+        DummyApiAnalyzer analyzer = new DummyApiAnalyzer("a", false);
+        List<String> parallel = analyze(analyzer, new ForkJoinPool(4));
+
+        Assert.assertEquals(serial, parallel);
+        Assert.assertEquals(0, analyzer.parallelAnalyzers.get());
+    }
+
+    @Test
+    public void testFrozenForestsAnalyzedTheSame() throws Exception {
+        List<String> unfrozen = analyze(new DummyApiAnalyzer("a", false), null);
+
+        DummyApiAnalyzer analyzer = new DummyApiAnalyzer("a", false);
+        analyzer.freezeForests = true;
+        List<String> frozen = analyze(analyzer, null);
+
+        Assert.assertEquals(unfrozen, frozen);
+    }
+
+    @Test
+    public void testHashJoinPairsElementsTheSameAsMergeJoin() throws Exception {
+        List<String> merged = analyze(new DummyApiAnalyzer("a", true), null);
+
+        DummyApiAnalyzer analyzer = new DummyApiAnalyzer("a", true);
+        analyzer.correspondenceKeys = true;
+        Assert.assertEquals(merged, analyze(analyzer, null));
+        Assert.assertTrue(analyzer.correspondenceKeysComputed.get() > 0);
+
+        analyzer = new DummyApiAnalyzer("a", true);
+        analyzer.correspondenceKeys = true;
+        Assert.assertEquals(merged, analyze(analyzer, new ForkJoinPool(4)));
+        Assert.assertTrue(analyzer.correspondenceKeysComputed.get() > 0);
+    }
+
+    @Test
+    public void testConcurrentApiAnalyzers() throws Exception {
+        DummyApiAnalyzer a1 = new DummyApiAnalyzer("a", true);
+        DummyApiAnalyzer a2 = new DummyApiAnalyzer("b", false);
+        DummyApiAnalyzer a3 = new DummyApiAnalyzer("c", false);
+
+        List<String> serial = analyze(null, null, a1, a2, a3);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<String> concurrent;
+        try {
+            concurrent = analyze(executor, new ForkJoinPool(2), a1, a2, a3);
+        } finally {
+            executor.shutdown();
+        }
+
+        //each analyzer reports in the same order, but the reports of the different analyzers can interleave
+        for (String name : Arrays.asList("a:", "b:", "c:")) {
+            Assert.assertEquals(filter(serial, name), filter(concurrent, name));
+        }
+        Assert.assertEquals(serial.size(), concurrent.size());
+    }
+
+    @Test
+    public void testOldAndNewArchivesAnalyzedConcurrently() throws Exception {
+        DummyApiAnalyzer analyzer = new DummyApiAnalyzer("a", false);
+        List<String> serial = analyze(analyzer, null);
+
+        //the archive analysis of the old and new API waits for the other one to start, so this would time out if
+        //they weren't analyzed concurrently
+        analyzer.archiveAnalysisBarrier = new CyclicBarrier(2);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Assert.assertEquals(serial, analyze(executor, null, analyzer));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testArchiveAnalyzersClosedOnlyAfterBothAnalysesEnd() throws Exception {
+        DummyApiAnalyzer analyzer = new DummyApiAnalyzer("a", false);
+        analyzer.archiveAnalysisBarrier = new CyclicBarrier(2);
+        analyzer.failNewArchiveAnalysis = true;
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            analyze(executor, null, analyzer);
+            Assert.fail("The analysis of the new archives should have failed.");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("Failing on purpose.", e.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertFalse(analyzer.closedDuringArchiveAnalysis);
+    }
+
+    @Test
+    public void testAsynchronousReporting() throws Exception {
+        List<String> serial = analyze(new DummyApiAnalyzer("a", false), null);
+
+        CollectingReporter reporter = new CollectingReporter();
+        reporter.delayMillis = 1;
+
+        Revapi revapi = Revapi.builder().withAnalyzers(new DummyApiAnalyzer("a", false)).withReporters(reporter)
+            .build();
+
+        revapi.analyze(AnalysisContext.builder().withOldAPI(OLD_API).withNewAPI(NEW_API)
+            .withReportQueueCapacity(4).build());
+
+        //all the reports delivered, in order, before the reporter was closed
+        Assert.assertEquals(serial, reporter.reportsWhenClosed);
+        Assert.assertNotSame(Thread.currentThread(), reporter.reportingThread);
+    }
+
+    @Test
+    public void testArchiveAnalyzersClosedOnlyAfterAsynchronousReportersCatchUp() throws Exception {
+        List<String> serial = analyze(new DummyApiAnalyzer("a", false), null);
+
+        CollectingReporter reporter = new CollectingReporter();
+        reporter.delayMillis = 1;
+
+        DummyApiAnalyzer analyzer = new DummyApiAnalyzer("a", false);
+        analyzer.reportedElements = () -> reporter.reports.size();
+
+        Revapi revapi = Revapi.builder().withAnalyzers(analyzer).withReporters(reporter).build();
+
+        revapi.analyze(AnalysisContext.builder().withOldAPI(OLD_API).withNewAPI(NEW_API)
+            .withReportQueueCapacity(4).build());
+
+        //the reporter could still be accessing the elements of the archive analyzers if it was behind
+        Assert.assertEquals(Arrays.asList(serial.size(), serial.size()), analyzer.reportedWhenArchiveAnalyzersClosed);
+    }
+
+    @Test
+    public void testAsynchronousReporterFailurePropagated() throws Exception {
+        CollectingReporter reporter = new CollectingReporter();
+        reporter.failAfter = 10;
+
+        Revapi revapi = Revapi.builder().withAnalyzers(new DummyApiAnalyzer("a", false)).withReporters(reporter)
+            .build();
+
+        try {
+            revapi.analyze(AnalysisContext.builder().withOldAPI(OLD_API).withNewAPI(NEW_API)
+                .withReportQueueCapacity(1).build());
+            Assert.fail("The reporter failure should have failed the analysis.");
+        } catch (Exception e) {
+            //expected
+        }
+
+        Assert.assertEquals(10, reporter.reports.size());
+        Assert.assertNotNull(reporter.reportsWhenClosed);
+    }
+
+    @Test
+    public void testEachTransformAppliedOncePerDifference() throws Exception {
+        //"present" -> "present" with a new instance (like a reclassification)
+        TestTransform reclassify = new TestTransform("present", d -> new Difference(d.code, d.name, "reclassified",
+            d.classification, d.attachments));
+        //discards every other "added"
+        TestTransform ignore = new TestTransform("added", d -> d.name.hashCode() % 2 == 0 ? null : d);
+
+        List<String> reports = analyzeWithTransforms(new DummyApiAnalyzer("a", false), reclassify, ignore);
+
+        long present = reports.stream().filter(r -> r.startsWith("present ")).count();
+        long added = reports.stream().filter(r -> r.startsWith("added ")).count();
+
+        Assert.assertEquals(present, reclassify.calls.get());
+        Assert.assertTrue(added > 0);
+        Assert.assertTrue(added < ignore.calls.get());
+    }
+
+    @Test
+    public void testTransformsOfNewCodeAppliedAfterCodeChange() throws Exception {
+        TestTransform rename = new TestTransform("removed", d -> new Difference("gone", d.name, d.description,
+            d.classification, d.attachments));
+        TestTransform ignoreRemoved = new TestTransform("removed", d -> null);
+        TestTransform ignoreGone = new TestTransform("gone", d -> d.name.endsWith(".c1") ? null : d);
+
+        List<String> reports = analyzeWithTransforms(new DummyApiAnalyzer("a", false), rename, ignoreRemoved,
+            ignoreGone);
+
+        //the decision of ignoreRemoved is forgotten once the code changes, only ignoreGone decides
+        Assert.assertFalse(reports.stream().anyMatch(r -> r.startsWith("removed ")));
+        Assert.assertTrue(reports.stream().anyMatch(r -> r.startsWith("gone ")));
+        Assert.assertFalse(reports.stream().anyMatch(r -> r.startsWith("gone ") && r.endsWith(".c1")));
+    }
+
+    @Test
+    public void testDiscardForgottenWhenLaterTransformChangesCode() throws Exception {
+        TestTransform ignoreRemoved = new TestTransform("removed", d -> null);
+        TestTransform rename = new TestTransform("removed", d -> new Difference("gone", d.name, d.description,
+            d.classification, d.attachments));
+        TestTransform ignoreGone = new TestTransform("gone", d -> d.name.endsWith(".c1") ? null : d);
+
+        List<String> reports = analyzeWithTransforms(new DummyApiAnalyzer("a", false), ignoreRemoved, rename,
+            ignoreGone);
+
+        //ignoreRemoved saw the difference first but its decision is forgotten just the same once the code changes
+        Assert.assertTrue(ignoreRemoved.calls.get() > 0);
+        Assert.assertFalse(reports.stream().anyMatch(r -> r.startsWith("removed ")));
+        Assert.assertTrue(reports.stream().anyMatch(r -> r.startsWith("gone ")));
+        Assert.assertFalse(reports.stream().anyMatch(r -> r.startsWith("gone ") && r.endsWith(".c1")));
+    }
+
+    @Test
+    public void testFixpointTransform() throws Exception {
+        //appends "!" to the description until there are 3 of them
+        TestTransform exclaim = new TestTransform("added", d -> {
+            String desc = d.description == null ? "" : d.description;
+            return desc.length() == 3 ? d : new Difference(d.code, d.name, desc + "!", d.classification,
+                d.attachments);
+        });
+        exclaim.fixpoint = true;
+
+        CollectingReporter reporter = new CollectingReporter();
+        Revapi revapi = Revapi.builder().withAnalyzers(new DummyApiAnalyzer("a", false)).withReporters(reporter)
+            .withTransforms(exclaim).build();
+
+        revapi.analyze(AnalysisContext.builder().withOldAPI(OLD_API).withNewAPI(NEW_API).build());
+
+        Assert.assertFalse(reporter.descriptions.isEmpty());
+        for (String desc : reporter.descriptions) {
+            Assert.assertEquals("!!!", desc);
+        }
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        TestTransform ignoreRemoved = new TestTransform("removed", d -> null);
+        CollectingReporter reporter = new CollectingReporter();
+        JSONAnalysisMetrics metrics = new JSONAnalysisMetrics();
+
+        Revapi revapi = Revapi.builder().withAnalyzers(new DummyApiAnalyzer("a", false)).withReporters(reporter)
+            .withTransforms(ignoreRemoved).build();
+
+        revapi.analyze(AnalysisContext.builder().withOldAPI(OLD_API).withNewAPI(NEW_API).withMetrics(metrics)
+            .build());
+
+        ModelNode json = ModelNode.fromJSONString(metrics.toJSONString());
+        ModelNode times = json.get("times");
+        ModelNode counts = json.get("counts");
+
+        String analyzer = DummyApiAnalyzer.class.getName();
+
+        Assert.assertEquals(1, times.get("archive-analysis", "subjects", analyzer + ":old", "count").asLong());
+        Assert.assertEquals(1, times.get("archive-analysis", "subjects", analyzer + ":new", "count").asLong());
+        Assert.assertEquals(ignoreRemoved.calls.get(),
+            times.get("transform", "subjects", TestTransform.class.getName(), "count").asLong());
+        Assert.assertTrue(times.get("reporter", "subjects", CollectingReporter.class.getName(), "count").asLong()
+            > 0);
+
+        long produced = counts.get("differences.produced", "total").asLong();
+        long removed = counts.get("differences.removed", "total").asLong();
+        Assert.assertEquals(ignoreRemoved.calls.get(), removed);
+        Assert.assertEquals(reporter.reports.size(), produced - removed);
+
+        Assert.assertEquals(countElements(OLD_API),
+            counts.get("forest-elements", "subjects", analyzer + ":old", "total").asLong());
+        Assert.assertEquals(countElements(NEW_API),
+            counts.get("forest-elements", "subjects", analyzer + ":new", "total").asLong());
+    }
+
+    @Test
+    public void testEvolutionAnalyzesEachVersionOnce() throws Exception {
+        List<API> versions = Arrays.asList(new API(Collections.<Archive>emptyList(), null),
+            new API(Collections.<Archive>emptyList(), null), new API(Collections.<Archive>emptyList(), null),
+            new API(Collections.<Archive>emptyList(), null));
+
+        List<String> separate = new ArrayList<>();
+        for (int i = 0; i < versions.size() - 1; ++i) {
+            separate.addAll(analyzeVersions(versions, i, i + 1));
+        }
+
+        EvolutionApiAnalyzer analyzer = new EvolutionApiAnalyzer(versions);
+        CollectingReporter reporter = new CollectingReporter();
+        Revapi revapi = Revapi.builder().withAnalyzers(analyzer).withReporters(reporter).build();
+
+        revapi.analyzeEvolution(AnalysisContext.builder().build(), versions, Revapi.Evolution.CONSECUTIVE);
+
+        Assert.assertEquals(separate, reporter.reports);
+        Assert.assertEquals(versions.size(), analyzer.archiveAnalyses.get());
+        Assert.assertEquals(2, analyzer.maxOpenArchiveAnalyzers.get());
+        Assert.assertEquals(0, analyzer.openArchiveAnalyzers.get());
+    }
+
+    @Test
+    public void testEvolutionOfAllPairs() throws Exception {
+        List<API> versions = Arrays.asList(new API(Collections.<Archive>emptyList(), null),
+            new API(Collections.<Archive>emptyList(), null), new API(Collections.<Archive>emptyList(), null));
+
+        List<String> separate = new ArrayList<>();
+        separate.addAll(analyzeVersions(versions, 0, 1));
+        separate.addAll(analyzeVersions(versions, 0, 2));
+        separate.addAll(analyzeVersions(versions, 1, 2));
+
+        EvolutionApiAnalyzer analyzer = new EvolutionApiAnalyzer(versions);
+        CollectingReporter reporter = new CollectingReporter();
+        Revapi revapi = Revapi.builder().withAnalyzers(analyzer).withReporters(reporter).build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            revapi.analyzeEvolution(AnalysisContext.builder().withExecutor(executor).build(), versions,
+                Revapi.Evolution.ALL_PAIRS);
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(separate, reporter.reports);
+        Assert.assertEquals(versions.size(), analyzer.archiveAnalyses.get());
+        Assert.assertEquals(0, analyzer.openArchiveAnalyzers.get());
+    }
+
+    private static List<String> analyzeVersions(List<API> versions, int oldIndex, int newIndex) throws Exception {
+        CollectingReporter reporter = new CollectingReporter();
+
+        Revapi revapi = Revapi.builder().withAnalyzers(new EvolutionApiAnalyzer(versions)).withReporters(reporter)
+            .build();
+
+        revapi.analyze(AnalysisContext.builder().withOldAPI(versions.get(oldIndex))
+            .withNewAPI(versions.get(newIndex)).build());
+
+        return reporter.reports;
+    }
+
+    private static long countElements(API api) {
+        SortedSet<? extends Element> roots = new DummyApiAnalyzer("a", false).getArchiveAnalyzer(api).analyze()
+            .getRoots();
+
+        return roots.size() + roots.stream().mapToLong(r -> r.getChildren().size()).sum();
+    }
+
+    private static List<String> analyzeWithTransforms(DummyApiAnalyzer apiAnalyzer,
+        DifferenceTransform<?>... transforms) throws Exception {
+
+        CollectingReporter reporter = new CollectingReporter();
+
+        Revapi revapi = Revapi.builder().withAnalyzers(apiAnalyzer).withReporters(reporter)
+            .withTransforms(transforms).build();
+
+        revapi.analyze(AnalysisContext.builder().withOldAPI(OLD_API).withNewAPI(NEW_API).build());
+
+        return reporter.reports;
+    }
+
+    private static List<String> filter(List<String> reports, String analyzerName) {
+        return reports.stream().filter(r -> r.contains(" " + analyzerName)).collect(Collectors.toList());
+    }
+
+    private static List<String> analyze(DummyApiAnalyzer apiAnalyzer, @Nullable ForkJoinPool pool)
+        throws Exception {
+        return analyze(null, pool, apiAnalyzer);
+    }
+
+    private static List<String> analyze(@Nullable Executor executor, @Nullable ForkJoinPool pool,
+        DummyApiAnalyzer... apiAnalyzers) throws Exception {
+
+        CollectingReporter reporter = new CollectingReporter();
+
+        Revapi revapi = Revapi.builder().withAnalyzers(apiAnalyzers).withReporters(reporter).build();
+
+        AnalysisContext ctx = AnalysisContext.builder().withOldAPI(OLD_API).withNewAPI(NEW_API)
+            .withTraversalPool(pool).withExecutor(executor).build();
+
+        try {
+            revapi.analyze(ctx);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        Assert.assertFalse("Reporter called concurrently", reporter.calledConcurrently);
+
+        return reporter.reports;
+    }
+
+    private static final class DummyElement extends SimpleElement {
+        private final API api;
+        private final String name;
+
+        DummyElement(API api, String name) {
+            this.api = api;
+            this.name = name;
+        }
+
+        @Nonnull
+        @Override
+        public API getApi() {
+            return api;
+        }
+
+        @Nullable
+        @Override
+        public Archive getArchive() {
+            return null;
+        }
+
+        @Override
+        public int compareTo(@Nonnull Element o) {
+            return name.compareTo(((DummyElement) o).name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+        @SuppressWarnings("unchecked")
+        void addChild(DummyElement child) {
+            ((SortedSet<Element>) getChildren()).add(child);
+        }
+    }
+
+    private static final class DummyForest extends SimpleElementForest {
+        DummyForest(API api) {
+            super(api);
+        }
+
+        @SuppressWarnings("unchecked")
+        void addRoot(DummyElement root) {
+            ((SortedSet<SimpleElement>) getRoots()).add(root);
+        }
+    }
+
+    private static final class DummyDifferenceAnalyzer implements DifferenceAnalyzer {
+        private final String name;
+        private final AtomicInteger openAnalyzers;
+        private final AtomicInteger correspondenceKeysComputed;
+        private final AtomicInteger endedAnalyses;
+
+        private DummyDifferenceAnalyzer(String name, AtomicInteger openAnalyzers,
+            @Nullable AtomicInteger correspondenceKeysComputed, AtomicInteger endedAnalyses) {
+            this.name = name;
+            this.openAnalyzers = openAnalyzers;
+            this.correspondenceKeysComputed = correspondenceKeysComputed;
+            this.endedAnalyses = endedAnalyses;
+        }
+
+        @Nonnull
+        @Override
+        public Comparator<? super Element> getCorrespondenceComparator() {
+            return Comparator.naturalOrder();
+        }
+
+        @Nullable
+        @Override
+        public Object getCorrespondenceKey(@Nonnull Element element) {
+            if (correspondenceKeysComputed == null) {
+                return null;
+            }
+
+            correspondenceKeysComputed.incrementAndGet();
+            return element.toString();
+        }
+
+        @Override
+        public void open() {
+            openAnalyzers.incrementAndGet();
+        }
+
+        @Override
+        public void beginAnalysis(@Nullable Element oldElement, @Nullable Element newElement) {
+        }
+
+        @Override
+        public Report endAnalysis(@Nullable Element oldElement, @Nullable Element newElement) {
+            endedAnalyses.incrementAndGet();
+
+            String code = oldElement == null ? "added" : (newElement == null ? "removed" : "present");
+            Element el = oldElement == null ? newElement : oldElement;
+
+            return Report.builder().withOld(oldElement).withNew(newElement).addProblem().withCode(code)
+                .withName(name + ":" + el.getFullHumanReadableString()).done().build();
+        }
+
+        @Override
+        public void close() {
+            openAnalyzers.decrementAndGet();
+        }
+    }
+
+    private static final class DummyApiAnalyzer implements ApiAnalyzer {
+        final AtomicInteger parallelAnalyzers = new AtomicInteger();
+        final AtomicInteger openAnalyzers = new AtomicInteger();
+        final AtomicInteger correspondenceKeysComputed = new AtomicInteger();
+        final AtomicInteger endedAnalyses = new AtomicInteger();
+        private final String name;
+        private final boolean supportsParallelAnalysis;
+        final AtomicInteger archiveAnalysesInProgress = new AtomicInteger();
+        volatile CyclicBarrier archiveAnalysisBarrier;
+        volatile boolean failNewArchiveAnalysis;
+        volatile boolean closedDuringArchiveAnalysis;
+        volatile boolean freezeForests;
+        volatile boolean correspondenceKeys;
+        volatile IntSupplier reportedElements;
+        final List<Integer> reportedWhenArchiveAnalyzersClosed = new CopyOnWriteArrayList<>();
+
+        private DummyApiAnalyzer(String name, boolean supportsParallelAnalysis) {
+            this.name = name;
+            this.supportsParallelAnalysis = supportsParallelAnalysis;
+        }
+
+        @Nonnull
+        @Override
+        public ArchiveAnalyzer getArchiveAnalyzer(@Nonnull final API api) {
+            return new ArchiveAnalyzer() {
+                @Nonnull
+                @Override
+                public ElementForest analyze() {
+                    archiveAnalysesInProgress.incrementAndGet();
+                    try {
+                        return doAnalyze(api);
+                    } finally {
+                        archiveAnalysesInProgress.decrementAndGet();
+                    }
+                }
+
+                @Override
+                public void close() {
+                    if (archiveAnalysesInProgress.get() > 0) {
+                        closedDuringArchiveAnalysis = true;
+                    }
+
+                    if (reportedElements != null) {
+                        reportedWhenArchiveAnalyzersClosed.add(reportedElements.getAsInt());
+                    }
+                }
+            };
+        }
+
+        private ElementForest doAnalyze(API api) {
+            if (archiveAnalysisBarrier != null) {
+                try {
+                    archiveAnalysisBarrier.await(10, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            boolean old = api == OLD_API;
+            if (failNewArchiveAnalysis) {
+                if (!old) {
+                    throw new IllegalStateException("Failing on purpose.");
+                }
+
+                //make sure the old analysis is still running when the new one fails
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            DummyForest forest = new DummyForest(api);
+            for (int i = 0; i < 200; ++i) {
+                //every 7th root only in the old API, every 11th only in the new
+                if ((old && i % 11 == 0) || (!old && i % 7 == 0)) {
+                    continue;
+                }
+
+                DummyElement root = new DummyElement(api, String.format("r%03d", i));
+                for (int j = 0; j < 5; ++j) {
+                    if (old && (i + j) % 13 == 0) {
+                        continue;
+                    }
+                    root.addChild(new DummyElement(api, root + ".c" + j));
+                }
+
+                forest.addRoot(root);
+            }
+
+            if (freezeForests) {
+                forest.freeze();
+            }
+
+            return forest;
+        }
+
+        @Nonnull
+        @Override
+        public DifferenceAnalyzer getDifferenceAnalyzer(@Nonnull ArchiveAnalyzer oldArchive,
+            @Nonnull ArchiveAnalyzer newArchive) {
+            return newDifferenceAnalyzer();
+        }
+
+        @Nullable
+        @Override
+        public DifferenceAnalyzer getParallelDifferenceAnalyzer(@Nonnull ArchiveAnalyzer oldArchive,
+            @Nonnull ArchiveAnalyzer newArchive) {
+            if (!supportsParallelAnalysis) {
+                return null;
+            }
+
+            parallelAnalyzers.incrementAndGet();
+            return newDifferenceAnalyzer();
+        }
+
+        private DifferenceAnalyzer newDifferenceAnalyzer() {
+            return new DummyDifferenceAnalyzer(name, openAnalyzers,
+                correspondenceKeys ? correspondenceKeysComputed : null, endedAnalyses);
+        }
+
+        @Nullable
+        @Override
+        public String[] getConfigurationRootPaths() {
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public Reader getJSONSchema(@Nonnull String configurationRootPath) {
+            return null;
+        }
+
+        @Override
+        public void initialize(@Nonnull AnalysisContext analysisContext) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Produces forests in which each version of the API adds a new root and removes some children of the older ones.
+     */
+    private static final class EvolutionApiAnalyzer implements ApiAnalyzer {
+        final AtomicInteger archiveAnalyses = new AtomicInteger();
+        final AtomicInteger openArchiveAnalyzers = new AtomicInteger();
+        final AtomicInteger maxOpenArchiveAnalyzers = new AtomicInteger();
+        private final List<API> versions;
+
+        private EvolutionApiAnalyzer(List<API> versions) {
+            this.versions = versions;
+        }
+
+        @Nonnull
+        @Override
+        public ArchiveAnalyzer getArchiveAnalyzer(@Nonnull API api) {
+            int version = 0;
+            while (versions.get(version) != api) {
+                version++;
+            }
+
+            int open = openArchiveAnalyzers.incrementAndGet();
+            maxOpenArchiveAnalyzers.accumulateAndGet(open, Math::max);
+
+            int index = version;
+            return new ArchiveAnalyzer() {
+                @Nonnull
+                @Override
+                public ElementForest analyze() {
+                    archiveAnalyses.incrementAndGet();
+
+                    DummyForest forest = new DummyForest(api);
+                    for (int i = 0; i <= index; ++i) {
+                        DummyElement root = new DummyElement(api, "r" + i);
+                        for (int j = index; j < 4; ++j) {
+                            root.addChild(new DummyElement(api, root + ".c" + j));
+                        }
+
+                        forest.addRoot(root);
+                    }
+
+                    return forest;
+                }
+
+                @Override
+                public void close() {
+                    openArchiveAnalyzers.decrementAndGet();
+                }
+            };
+        }
+
+        @Nonnull
+        @Override
+        public DifferenceAnalyzer getDifferenceAnalyzer(@Nonnull ArchiveAnalyzer oldArchive,
+            @Nonnull ArchiveAnalyzer newArchive) {
+            return new DummyDifferenceAnalyzer("e", new AtomicInteger(), null, new AtomicInteger());
+        }
+
+        @Nullable
+        @Override
+        public String[] getConfigurationRootPaths() {
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public Reader getJSONSchema(@Nonnull String configurationRootPath) {
+            return null;
+        }
+
+        @Override
+        public void initialize(@Nonnull AnalysisContext analysisContext) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class CollectingReporter implements Reporter {
+        final List<String> reports = new ArrayList<>();
+        final List<String> descriptions = new ArrayList<>();
+        final AtomicBoolean reporting = new AtomicBoolean();
+        volatile boolean calledConcurrently;
+        volatile Thread reportingThread;
+        volatile List<String> reportsWhenClosed;
+        long delayMillis;
+        int failAfter = -1;
+        IntSupplier progress;
+        int progressAtFirstReport = -1;
+
+        @Override
+        public void report(@Nonnull Report report) {
+            if (!reporting.compareAndSet(false, true)) {
+                calledConcurrently = true;
+            }
+
+            if (progress != null && progressAtFirstReport < 0) {
+                progressAtFirstReport = progress.getAsInt();
+            }
+
+            reportingThread = Thread.currentThread();
+
+            if (reports.size() == failAfter) {
+                throw new IllegalStateException("Failing on purpose.");
+            }
+
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            for (Difference d : report.getDifferences()) {
+                reports.add(d.code + " " + d.name);
+                if ("added".equals(d.code)) {
+                    descriptions.add(d.description);
+                }
+            }
+
+            reporting.set(false);
+        }
+
+        @Nullable
+        @Override
+        public String[] getConfigurationRootPaths() {
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public Reader getJSONSchema(@Nonnull String configurationRootPath) {
+            return null;
+        }
+
+        @Override
+        public void initialize(@Nonnull AnalysisContext analysisContext) {
+        }
+
+        @Override
+        public void close() {
+            reportsWhenClosed = new ArrayList<>(reports);
+        }
+    }
+
+    private static final class TestTransform implements DifferenceTransform<Element> {
+        private final Pattern[] codes;
+        private final Function<Difference, Difference> transformation;
+        final AtomicInteger calls = new AtomicInteger();
+        boolean fixpoint;
+
+        TestTransform(String code, Function<Difference, Difference> transformation) {
+            this.codes = new Pattern[]{Pattern.compile(Pattern.quote(code))};
+            this.transformation = transformation;
+        }
+
+        @Nonnull
+        @Override
+        public Pattern[] getDifferenceCodePatterns() {
+            return codes;
+        }
+
+        @Nullable
+        @Override
+        public Difference transform(@Nullable Element oldElement, @Nullable Element newElement,
+            @Nonnull Difference difference) {
+            calls.incrementAndGet();
+            return transformation.apply(difference);
+        }
+
+        @Override
+        public boolean requiresFixpoint() {
+            return fixpoint;
+        }
+
+        @Nullable
+        @Override
+        public String[] getConfigurationRootPaths() {
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public Reader getJSONSchema(@Nonnull String configurationRootPath) {
+            return null;
+        }
+
+        @Override
+        public void initialize(@Nonnull AnalysisContext analysisContext) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
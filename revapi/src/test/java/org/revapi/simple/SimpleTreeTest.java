@@ -16,6 +16,19 @@
 
 package org.revapi.simple;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.revapi.API;
+import org.revapi.Archive;
+import org.revapi.Element;
+
 /**
  * @author Lukas Krejci
  * @since 0.1
@@ -23,4 +36,201 @@ package org.revapi.simple;
 public class SimpleTreeTest {
     //TODO implement
     //searches
+
+    private static final API API = new API(Collections.<Archive>emptyList(), null);
+
+    @Test
+    public void testFrozenForestKeepsStructure() throws Exception {
+        TestForest forest = createForest();
+        String unfrozen = forest.toString();
+
+        forest.freeze();
+
+        Assert.assertEquals(unfrozen, forest.toString());
+        Assert.assertEquals(3, forest.getRoots().size());
+
+        for (Element root : forest.getRoots()) {
+            Assert.assertNull(root.getParent());
+            for (Element child : root.getChildren()) {
+                Assert.assertSame(root, child.getParent());
+                Assert.assertTrue(root.getChildren().contains(child));
+                for (Element grandChild : child.getChildren()) {
+                    Assert.assertSame(child, grandChild.getParent());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFrozenForestUnmodifiable() throws Exception {
+        TestForest forest = createForest();
+        forest.freeze();
+
+        TestElement root = (TestElement) forest.getRoots().first();
+
+        try {
+            root.addChild(new TestElement("x"));
+            Assert.fail("The children of a frozen element should not be modifiable.");
+        } catch (UnsupportedOperationException e) {
+            //expected
+        }
+
+        try {
+            forest.addRoot(new TestElement("x"));
+            Assert.fail("The roots of a frozen forest should not be modifiable.");
+        } catch (UnsupportedOperationException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testIndexedSearch() throws Exception {
+        TestForest forest = createForest();
+
+        List<TestElement> unfrozen = forest.searchByType(TestElement.class);
+        Assert.assertEquals(forest.search(TestElement.class, true, null, null), unfrozen);
+        Assert.assertEquals("r2.c1", String.valueOf(forest.searchByKey(TestElement.class, "r2.c1")));
+
+        forest.freeze();
+
+        Assert.assertEquals(unfrozen, forest.searchByType(TestElement.class));
+        Assert.assertEquals(unfrozen.size(), forest.searchByType(Element.class).size());
+        Assert.assertTrue(forest.searchByType(TestForestElement.class).isEmpty());
+
+        Element found = forest.searchByKey(TestElement.class, "r2.c1.g0");
+        Assert.assertNotNull(found);
+        Assert.assertEquals("r2.c1", found.getParent().toString());
+        Assert.assertNull(forest.searchByKey(TestElement.class, "r3"));
+        Assert.assertNull(forest.searchByKey(TestForestElement.class, "r2"));
+    }
+
+    @Test
+    public void testIndexKeptUntilForestChanges() throws Exception {
+        TestForest forest = createForest();
+
+        Assert.assertNull(forest.searchByKey(TestElement.class, "r3"));
+        List<TestElement> all = forest.searchByType(TestElement.class);
+        Assert.assertSame(all.get(0), forest.searchByType(TestElement.class).get(0));
+
+        TestElement r3 = new TestElement("r3");
+        forest.addRoot(r3);
+        Assert.assertSame(r3, forest.searchByKey(TestElement.class, "r3"));
+
+        TestElement child = new TestElement("r3.c0");
+        r3.addChild(child);
+        Assert.assertSame(child, forest.searchByKey(TestElement.class, "r3.c0"));
+        Assert.assertEquals(all.size() + 2, forest.searchByType(TestElement.class).size());
+
+        TestElement grandChild = new TestElement("r3.c0.g0");
+        child.addChild(grandChild);
+        Assert.assertSame(grandChild, forest.searchByKey(TestElement.class, "r3.c0.g0"));
+
+        r3.getChildren().clear();
+        Assert.assertNull(forest.searchByKey(TestElement.class, "r3.c0"));
+        Assert.assertNull(forest.searchByKey(TestElement.class, "r3.c0.g0"));
+
+        //no longer part of the forest, so its changes don't matter
+        child.addChild(new TestElement("r3.c0.g1"));
+        Assert.assertNull(forest.searchByKey(TestElement.class, "r3.c0.g1"));
+
+        forest.getRoots().remove(r3);
+        Assert.assertNull(forest.searchByKey(TestElement.class, "r3"));
+        Assert.assertEquals(all, forest.searchByType(TestElement.class));
+    }
+
+    @Test
+    public void testChangesInSubtreeBuiltBeforeAddingToForestDropIndex() throws Exception {
+        TestForest forest = createForest();
+
+        TestElement r3 = new TestElement("r3");
+        TestElement child = new TestElement("r3.c0");
+        r3.addChild(child);
+
+        forest.addRoot(r3);
+        Assert.assertSame(child, forest.searchByKey(TestElement.class, "r3.c0"));
+
+        TestElement grandChild = new TestElement("r3.c0.g0");
+        child.addChild(grandChild);
+        Assert.assertSame(grandChild, forest.searchByKey(TestElement.class, "r3.c0.g0"));
+
+        forest.getRoots().remove(r3);
+        Assert.assertNull(forest.searchByKey(TestElement.class, "r3"));
+
+        //the whole subtree left the forest
+        grandChild.addChild(new TestElement("r3.c0.g0.x"));
+        Assert.assertNull(forest.searchByKey(TestElement.class, "r3.c0.g0.x"));
+    }
+
+    private static TestForest createForest() {
+        TestForest forest = new TestForest();
+
+        for (int i = 0; i < 3; ++i) {
+            TestElement root = new TestElement("r" + i);
+            for (int j = 0; j < i + 1; ++j) {
+                TestElement child = new TestElement(root + ".c" + j);
+                for (int k = 0; k < j; ++k) {
+                    child.addChild(new TestElement(child + ".g" + k));
+                }
+                root.addChild(child);
+            }
+            forest.addRoot(root);
+        }
+
+        return forest;
+    }
+
+    private static final class TestElement extends SimpleElement {
+        private final String name;
+
+        TestElement(String name) {
+            this.name = name;
+        }
+
+        @Nonnull
+        @Override
+        public API getApi() {
+            return API;
+        }
+
+        @Nullable
+        @Override
+        public Archive getArchive() {
+            return null;
+        }
+
+        @Override
+        public int compareTo(@Nonnull Element o) {
+            return name.compareTo(((TestElement) o).name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+        @SuppressWarnings("unchecked")
+        void addChild(TestElement child) {
+            ((SortedSet<Element>) getChildren()).add(child);
+        }
+    }
+
+    private interface TestForestElement extends Element {
+    }
+
+    private static final class TestForest extends SimpleElementForest {
+        TestForest() {
+            super(API);
+        }
+
+        @Nullable
+        @Override
+        protected String getIndexKey(@Nonnull Element element) {
+            return element.toString();
+        }
+
+        @SuppressWarnings("unchecked")
+        void addRoot(TestElement root) {
+            ((SortedSet<SimpleElement>) getRoots()).add(root);
+        }
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 agent
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+
+package org.revapi.simple;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since 0.4
+ */
+public class SortedArraySetTest {
+
+    @Test
+    public void testSameOrderAsSource() throws Exception {
+        TreeSet<Integer> source = new TreeSet<>(Comparator.reverseOrder());
+        source.addAll(Arrays.asList(3, 1, 4, 5, 9, 2, 6));
+
+        SortedArraySet<Integer> set = SortedArraySet.of(source);
+
+        Assert.assertEquals(source.size(), set.size());
+        Assert.assertEquals(source.comparator(), set.comparator());
+        Assert.assertEquals(source, set);
+        Assert.assertEquals(Arrays.asList(source.toArray()), Arrays.asList(set.toArray()));
+
+        int i = 0;
+        for (Integer e : source) {
+            Assert.assertEquals(e, set.get(i++));
+        }
+
+        Assert.assertEquals(9, (int) set.first());
+        Assert.assertEquals(1, (int) set.last());
+        Assert.assertTrue(set.contains(4));
+        Assert.assertFalse(set.contains(7));
+        Assert.assertSame(set, SortedArraySet.of(set));
+    }
+
+    @Test
+    public void testViews() throws Exception {
+        SortedArraySet<Integer> set = SortedArraySet.of(new TreeSet<>(Arrays.asList(1, 3, 5, 7, 9)));
+
+        Assert.assertEquals(new TreeSet<>(Arrays.asList(3, 5)), set.subSet(2, 7));
+        Assert.assertEquals(new TreeSet<>(Arrays.asList(1, 3, 5)), set.headSet(7));
+        Assert.assertEquals(new TreeSet<>(Arrays.asList(7, 9)), set.tailSet(6));
+        Assert.assertTrue(set.subSet(4, 5).isEmpty());
+
+        SortedSet<Integer> tail = set.tailSet(5);
+        Assert.assertEquals(5, (int) tail.first());
+        Assert.assertFalse(tail.contains(3));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        SortedArraySet<Integer> set = SortedArraySet.of(new TreeSet<>());
+
+        Assert.assertTrue(set.isEmpty());
+        Assert.assertFalse(set.iterator().hasNext());
+
+        try {
+            set.first();
+            Assert.fail("first() should have failed on an empty set.");
+        } catch (NoSuchElementException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testImmutable() throws Exception {
+        SortedArraySet<Integer> set = SortedArraySet.of(new TreeSet<>(Arrays.asList(1, 2)));
+
+        try {
+            set.add(3);
+            Assert.fail("The set should not be modifiable.");
+        } catch (UnsupportedOperationException e) {
+            //expected
+        }
+
+        try {
+            set.removeAll(Collections.singleton(1));
+            Assert.fail("The set should not be modifiable.");
+        } catch (UnsupportedOperationException e) {
+            //expected
+        }
+
+        Assert.assertEquals(2, set.size());
+    }
+}